@@ -0,0 +1,163 @@
+package database;
+
+import model.Bug.Priority;
+import model.Bug.Status;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for the bug_counters table.
+ * Triggers on bugs keep one row per (dimension, bucket) up to date, so
+ * dashboard numbers are read from a handful of rows instead of counted.
+ */
+public class BugCounterDAO {
+    public static final String TOTAL = "total";
+    public static final String STATUS = "status";
+    public static final String PRIORITY = "priority";
+    public static final String STATUS_PRIORITY = "status_priority";
+    public static final String ASSIGNEE = "assignee";
+
+    // Same buckets the triggers maintain, counted from scratch
+    private static final String RECOUNT_SQL = """
+        SELECT 'total', '', COUNT(*) FROM bugs
+        UNION ALL SELECT 'status', status, COUNT(*) FROM bugs GROUP BY status
+        UNION ALL SELECT 'priority', priority, COUNT(*) FROM bugs GROUP BY priority
+        UNION ALL SELECT 'status_priority', status || '|' || priority, COUNT(*) FROM bugs GROUP BY status, priority
+        UNION ALL SELECT 'assignee', COALESCE(assignee_id, 0), COUNT(*) FROM bugs GROUP BY assignee_id
+    """;
+
+    // Counts per status and priority: counts[status.ordinal()][priority.ordinal()]
+    public static int[][] getStatusPriorityCounts() {
+        int[][] counts = new int[Status.values().length][Priority.values().length];
+        String sql = "SELECT bucket, count FROM bug_counters WHERE dimension = ?";
+
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, STATUS_PRIORITY);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                String bucket = rs.getString(1);
+                int split = bucket.indexOf('|');
+                Status status = Status.valueOf(bucket.substring(0, split));
+                Priority priority = Priority.valueOf(bucket.substring(split + 1));
+                counts[status.ordinal()][priority.ordinal()] = rs.getInt(2);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading bug counters: " + e.getMessage());
+        }
+
+        return counts;
+    }
+
+    // The limit assignees (user ids, unassigned excluded) with the most bugs, largest first.
+    // Reads at most limit counter rows; the counters already hold the GROUP BY result.
+    public static Map<Integer, Integer> getTopAssignees(int limit) {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        String sql = "SELECT bucket, count FROM bug_counters WHERE dimension = ? AND bucket <> '0' AND count > 0 "
+            + "ORDER BY count DESC, bucket LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, ASSIGNEE);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading assignee counters: " + e.getMessage());
+        }
+
+        return counts;
+    }
+
+    // Compare the counters against a full recount of bugs; returns one line per mismatch
+    public static List<String> verify() {
+        List<String> mismatches = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement()) {
+
+            // Both reads see the same snapshot so concurrent writes cannot cause false alarms
+            conn.setAutoCommit(false);
+            Map<String, Long> stored = readCounts(stmt, "SELECT dimension, bucket, count FROM bug_counters");
+            Map<String, Long> actual = readCounts(stmt, RECOUNT_SQL);
+            conn.commit();
+
+            Set<String> keys = new HashSet<>(stored.keySet());
+            keys.addAll(actual.keySet());
+            for (String key : keys) {
+                long expected = actual.getOrDefault(key, 0L);
+                long found = stored.getOrDefault(key, 0L);
+                if (expected != found) {
+                    mismatches.add(key + ": counter=" + found + " recount=" + expected);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error verifying bug counters: " + e.getMessage());
+            mismatches.add("verification failed: " + e.getMessage());
+        }
+
+        return mismatches;
+    }
+
+    // Verify the counters and rebuild them if they drifted; returns the mismatches found
+    public static List<String> repairIfInconsistent() {
+        List<String> mismatches = verify();
+        if (!mismatches.isEmpty()) {
+            System.err.println("Bug counters out of sync, rebuilding: " + mismatches);
+            rebuild();
+        }
+        return mismatches;
+    }
+
+    // Replace every counter with a fresh recount
+    public static boolean rebuild() {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            conn.setAutoCommit(false);
+            populate(stmt);
+            conn.commit();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding bug counters: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Fill bug_counters from the bugs table (also used by the schema migration)
+    static void populate(Statement stmt) throws SQLException {
+        stmt.execute("DELETE FROM bug_counters");
+        stmt.execute("INSERT INTO bug_counters (dimension, bucket, count) " + RECOUNT_SQL);
+    }
+
+    private static Map<String, Long> readCounts(Statement stmt, String sql) throws SQLException {
+        Map<String, Long> counts = new HashMap<>();
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                long count = rs.getLong(3);
+                if (count != 0) {
+                    counts.put(rs.getString(1) + ":" + rs.getString(2), count);
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -3,42 +3,55 @@ package database;
 import model.Bug;
 import model.Bug.Priority;
 import model.Bug.Status;
+import model.BugSummary;
+import model.Timestamps;
+import java.io.IOException;
 import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Bug operations
  */
 public class BugDAO {
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    
+    // Receives streamed bugs one at a time; return false to stop early
+    public interface BugRowHandler {
+        boolean handle(Bug bug) throws IOException;
+    }
+    
+    // Columns of a BugSummary: everything list views show, without the description
+    public static final String SUMMARY_COLUMNS =
+        "bugs.id, bugs.title, bugs.priority, bugs.status, bugs.assignee_id, bugs.created_date, bugs.updated_date";
+    
+    private static final String SEARCH_SQL =
+        "SELECT bugs.* FROM bugs_fts JOIN bugs ON bugs.id = bugs_fts.rowid " +
+        "WHERE bugs_fts MATCH ? ORDER BY bm25(bugs_fts, 10.0, 1.0, 5.0), bugs.id DESC";
+    
+    private static final String SUMMARY_SEARCH_SQL =
+        "SELECT " + SUMMARY_COLUMNS + " FROM bugs_fts JOIN bugs ON bugs.id = bugs_fts.rowid " +
+        "WHERE bugs_fts MATCH ? ORDER BY bm25(bugs_fts, 10.0, 1.0, 5.0), bugs.id DESC";
+    
+    private static final String INSERT_BUG_SQL = "INSERT INTO bugs (title, description, priority, status, assignee_id, created_by, created_date, updated_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 1000;
     
     // Create a new bug
     public static Bug createBug(Bug bug, int createdByUserId) {
-        String sql = "INSERT INTO bugs (title, description, priority, status, assigned_to, created_by, created_date, updated_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, bug.getTitle());
-            pstmt.setString(2, bug.getDescription());
-            pstmt.setString(3, bug.getPriority().name());
-            pstmt.setString(4, bug.getStatus().name());
-            pstmt.setString(5, bug.getAssignedTo());
-            pstmt.setInt(6, createdByUserId);
-            pstmt.setString(7, LocalDateTime.now().format(formatter));
-            pstmt.setString(8, LocalDateTime.now().format(formatter));
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_BUG_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
+            long now = Timestamps.now();
+            bindInsert(pstmt, bug, createdByUserId, now);
             pstmt.executeUpdate();
             
-            // Get the last inserted ID using SQLite's last_insert_rowid()
-            String getLastIdSql = "SELECT last_insert_rowid()";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(getLastIdSql)) {
-                if (rs.next()) {
-                    return getBugById(rs.getInt(1));
+            // Build the result from what was written instead of re-reading the row
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return new Bug(keys.getInt(1), bug.getTitle(), bug.getDescription(), bug.getPriority(),
+                                   bug.getStatus(), bug.getAssigneeId(), bug.getAssignedTo(), now, now);
                 }
             }
             
@@ -49,18 +62,102 @@ public class BugDAO {
         return null;
     }
     
+    // Create many bugs in a single transaction; returns the new ids in input order, or null on failure
+    public static int[] createBugs(List<Bug> bugs, int createdByUserId) {
+        int[] ids = new int[bugs.size()];
+        if (bugs.isEmpty()) {
+            return ids;
+        }
+        
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_BUG_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                long now = Timestamps.now();
+                int chunkStart = 0;
+                
+                for (int i = 0; i < bugs.size(); i++) {
+                    bindInsert(pstmt, bugs.get(i), createdByUserId, now);
+                    pstmt.addBatch();
+                    
+                    if (i - chunkStart + 1 == INSERT_BATCH_SIZE || i == bugs.size() - 1) {
+                        pstmt.executeBatch();
+                        readBatchKeys(pstmt, ids, chunkStart, i + 1);
+                        chunkStart = i + 1;
+                    }
+                }
+                
+                conn.commit();
+                return ids;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error creating bugs in batch: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Fill ids[from, to) from the keys generated by the last executed batch
+    private static void readBatchKeys(PreparedStatement pstmt, int[] ids, int from, int to) throws SQLException {
+        int filled = from;
+        int lastKey = -1;
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                lastKey = keys.getInt(1);
+                if (filled < to) {
+                    ids[filled++] = lastKey;
+                }
+            }
+        }
+        
+        if (filled == to) {
+            return;
+        }
+        if (lastKey < 0) {
+            throw new SQLException("Driver returned no generated keys for batch insert");
+        }
+        // The SQLite driver only reports the last rowid of a batch. We hold the only
+        // writer connection inside one transaction, so AUTOINCREMENT ids are consecutive.
+        for (int i = from; i < to; i++) {
+            ids[i] = lastKey - (to - 1 - i);
+        }
+    }
+    
+    private static void bindInsert(PreparedStatement pstmt, Bug bug, int createdByUserId, long now) throws SQLException {
+        pstmt.setString(1, bug.getTitle());
+        pstmt.setString(2, bug.getDescription());
+        pstmt.setString(3, bug.getPriority().name());
+        pstmt.setString(4, bug.getStatus().name());
+        setAssigneeId(pstmt, 5, bug);
+        pstmt.setInt(6, createdByUserId);
+        pstmt.setLong(7, now);
+        pstmt.setLong(8, now);
+    }
+    
+    // assignee_id is NULL for an unassigned bug
+    private static void setAssigneeId(PreparedStatement pstmt, int index, Bug bug) throws SQLException {
+        if (bug.getAssigneeId() > 0) {
+            pstmt.setInt(index, bug.getAssigneeId());
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+    
     // Get all bugs
     public static List<Bug> getAllBugs() {
         List<Bug> bugs = new ArrayList<>();
         String sql = "SELECT * FROM bugs ORDER BY id DESC";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                bugs.add(extractBugFromResultSet(rs));
-            }
+            readBugs(rs, bugs);
             
         } catch (SQLException e) {
             System.err.println("Error getting all bugs: " + e.getMessage());
@@ -69,20 +166,114 @@ public class BugDAO {
         return bugs;
     }
     
+    // Get one page of bug summaries, newest first: ids below afterId (or from the top when
+    // afterId <= 0), optionally restricted to a status and/or priority. Each page is an index
+    // range scan, so page N costs the same as page 1.
+    public static List<BugSummary> getBugSummaryPage(int afterId, int limit, Status status, Priority priority) {
+        List<BugSummary> bugs = new ArrayList<>();
+        
+        StringBuilder sql = new StringBuilder("SELECT " + SUMMARY_COLUMNS + " FROM bugs WHERE 1 = 1");
+        if (afterId > 0) {
+            sql.append(" AND id < ?");
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+        }
+        if (priority != null) {
+            sql.append(" AND priority = ?");
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (afterId > 0) {
+                pstmt.setInt(index++, afterId);
+            }
+            if (status != null) {
+                pstmt.setString(index++, status.name());
+            }
+            if (priority != null) {
+                pstmt.setString(index++, priority.name());
+            }
+            pstmt.setInt(index, limit);
+            
+            ResultSet rs = pstmt.executeQuery();
+            readSummaries(rs, bugs);
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting bug page: " + e.getMessage());
+        }
+        
+        return bugs;
+    }
+    
+    // The most recently created or updated bugs, newest first. Reads the tail of
+    // idx_bugs_updated_date (which carries the id), so no table scan or sort.
+    public static List<BugSummary> getRecentBugSummaries(int limit) {
+        List<BugSummary> bugs = new ArrayList<>();
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM bugs ORDER BY updated_date DESC, id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            readSummaries(rs, bugs);
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting recent bugs: " + e.getMessage());
+        }
+        
+        return bugs;
+    }
+    
+    // Stream bugs to the handler while the cursor stays open, so only one row is in
+    // memory at a time. A null or empty keyword streams every bug, newest first;
+    // otherwise rows come in search-rank order.
+    // Returns the number of rows handled.
+    public static int streamBugs(String keyword, int fetchSize, BugRowHandler handler) throws SQLException, IOException {
+        String match = FtsQuery.toMatchExpression(keyword);
+        String sql = match != null ? SEARCH_SQL : "SELECT * FROM bugs ORDER BY id DESC";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setFetchSize(fetchSize);
+            if (match != null) {
+                pstmt.setString(1, match);
+            }
+            
+            int count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                BugRowMapper mapper = null;
+                while (rs.next()) {
+                    if (mapper == null) {
+                        mapper = new BugRowMapper(rs);
+                    }
+                    count++;
+                    if (!handler.handle(mapper.map(rs))) {
+                        break;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+    
     // Get bugs created by a specific user
     public static List<Bug> getBugsByUser(int userId) {
         List<Bug> bugs = new ArrayList<>();
         String sql = "SELECT * FROM bugs WHERE created_by = ? ORDER BY id DESC";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                bugs.add(extractBugFromResultSet(rs));
-            }
+            readBugs(rs, bugs);
             
         } catch (SQLException e) {
             System.err.println("Error getting bugs by user: " + e.getMessage());
@@ -91,18 +282,40 @@ public class BugDAO {
         return bugs;
     }
     
+    // The limit users (by id) who created the most bugs, largest first.
+    // GROUP BY walks idx_bugs_created_by_id in order, so only one group is open at a time.
+    public static Map<Integer, Integer> getTopCreators(int limit) {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        String sql = "SELECT created_by, COUNT(*) AS n FROM bugs GROUP BY created_by ORDER BY n DESC, created_by LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error ranking bug creators: " + e.getMessage());
+        }
+        
+        return counts;
+    }
+    
     // Get bug by ID
     public static Bug getBugById(int id) {
         String sql = "SELECT * FROM bugs WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractBugFromResultSet(rs);
+                return new BugRowMapper(rs).map(rs);
             }
             
         } catch (SQLException e) {
@@ -114,7 +327,7 @@ public class BugDAO {
     
     // Update bug
     public static boolean updateBug(Bug bug) {
-        String sql = "UPDATE bugs SET title = ?, description = ?, priority = ?, status = ?, assigned_to = ?, updated_date = ? WHERE id = ?";
+        String sql = "UPDATE bugs SET title = ?, description = ?, priority = ?, status = ?, assignee_id = ?, updated_date = ? WHERE id = ?";
         
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -123,8 +336,8 @@ public class BugDAO {
             pstmt.setString(2, bug.getDescription());
             pstmt.setString(3, bug.getPriority().name());
             pstmt.setString(4, bug.getStatus().name());
-            pstmt.setString(5, bug.getAssignedTo());
-            pstmt.setString(6, LocalDateTime.now().format(formatter));
+            setAssigneeId(pstmt, 5, bug);
+            pstmt.setLong(6, Timestamps.now());
             pstmt.setInt(7, bug.getId());
             
             pstmt.executeUpdate();
@@ -153,26 +366,86 @@ public class BugDAO {
         }
     }
     
-    // Search bugs
+    // Full-text search over title, description and assignee, best matches first (bm25,
+    // title weighted highest). Words match as prefixes; "quoted text" matches as a phrase.
     public static List<Bug> searchBugs(String keyword) {
         List<Bug> bugs = new ArrayList<>();
-        String sql = "SELECT * FROM bugs WHERE LOWER(title) LIKE ? OR LOWER(description) LIKE ? ORDER BY id DESC";
+        String match = FtsQuery.toMatchExpression(keyword);
+        if (match == null) {
+            return bugs;
+        }
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SEARCH_SQL)) {
+            
+            pstmt.setString(1, match);
+            ResultSet rs = pstmt.executeQuery();
+            readBugs(rs, bugs);
             
-            String searchPattern = "%" + keyword.toLowerCase() + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
+        } catch (SQLException e) {
+            System.err.println("Error searching bugs: " + e.getMessage());
+        }
+        
+        return bugs;
+    }
+    
+    // Search like searchBugs, returning summaries only
+    public static List<BugSummary> searchBugSummaries(String keyword) {
+        List<BugSummary> bugs = new ArrayList<>();
+        String match = FtsQuery.toMatchExpression(keyword);
+        if (match == null) {
+            return bugs;
+        }
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SUMMARY_SEARCH_SQL)) {
             
+            pstmt.setString(1, match);
             ResultSet rs = pstmt.executeQuery();
+            readSummaries(rs, bugs);
             
-            while (rs.next()) {
-                bugs.add(extractBugFromResultSet(rs));
+        } catch (SQLException e) {
+            System.err.println("Error searching bugs: " + e.getMessage());
+        }
+        
+        return bugs;
+    }
+    
+    // Run a summary SELECT compiled elsewhere (see service.BugQuery.toSummarySql)
+    public static List<BugSummary> queryBugSummaries(String sql, List<Object> params) {
+        List<BugSummary> bugs = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
             }
+            ResultSet rs = pstmt.executeQuery();
+            readSummaries(rs, bugs);
             
         } catch (SQLException e) {
-            System.err.println("Error searching bugs: " + e.getMessage());
+            System.err.println("Error querying bugs: " + e.getMessage());
+        }
+        
+        return bugs;
+    }
+    
+    // Run a bug SELECT compiled elsewhere (see service.BugQuery) with its bind values
+    public static List<Bug> queryBugs(String sql, List<Object> params) {
+        List<Bug> bugs = new ArrayList<>();
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            readBugs(rs, bugs);
+            
+        } catch (SQLException e) {
+            System.err.println("Error querying bugs: " + e.getMessage());
         }
         
         return bugs;
@@ -183,15 +456,13 @@ public class BugDAO {
         List<Bug> bugs = new ArrayList<>();
         String sql = "SELECT * FROM bugs WHERE status = ? ORDER BY id DESC";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, status.name());
             ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                bugs.add(extractBugFromResultSet(rs));
-            }
+            readBugs(rs, bugs);
             
         } catch (SQLException e) {
             System.err.println("Error filtering bugs by status: " + e.getMessage());
@@ -205,15 +476,13 @@ public class BugDAO {
         List<Bug> bugs = new ArrayList<>();
         String sql = "SELECT * FROM bugs WHERE priority = ? ORDER BY id DESC";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, priority.name());
             ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                bugs.add(extractBugFromResultSet(rs));
-            }
+            readBugs(rs, bugs);
             
         } catch (SQLException e) {
             System.err.println("Error filtering bugs by priority: " + e.getMessage());
@@ -222,43 +491,25 @@ public class BugDAO {
         return bugs;
     }
     
-    // Extract Bug object from ResultSet
-    private static Bug extractBugFromResultSet(ResultSet rs) throws SQLException {
-        Bug bug = new Bug(
-            rs.getString("title"),
-            rs.getString("description"),
-            Priority.valueOf(rs.getString("priority")),
-            rs.getString("assigned_to")
-        );
-        
-        // Use reflection to set the ID (since Bug class generates IDs automatically)
-        try {
-            java.lang.reflect.Field idField = Bug.class.getDeclaredField("id");
-            idField.setAccessible(true);
-            idField.set(bug, rs.getInt("id"));
-            
-            java.lang.reflect.Field statusField = Bug.class.getDeclaredField("status");
-            statusField.setAccessible(true);
-            statusField.set(bug, Status.valueOf(rs.getString("status")));
-            
-            java.lang.reflect.Field createdDateField = Bug.class.getDeclaredField("createdDate");
-            createdDateField.setAccessible(true);
-            String createdDateStr = rs.getString("created_date");
-            if (createdDateStr != null) {
-                createdDateField.set(bug, LocalDateTime.parse(createdDateStr, formatter));
-            }
-            
-            java.lang.reflect.Field updatedDateField = Bug.class.getDeclaredField("updatedDate");
-            updatedDateField.setAccessible(true);
-            String updatedDateStr = rs.getString("updated_date");
-            if (updatedDateStr != null) {
-                updatedDateField.set(bug, LocalDateTime.parse(updatedDateStr, formatter));
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error setting bug fields: " + e.getMessage());
+    // Map every remaining row of the ResultSet into the list
+    private static void readBugs(ResultSet rs, List<Bug> bugs) throws SQLException {
+        if (!rs.next()) {
+            return;
         }
-        
-        return bug;
+        // Resolve column positions once, on the first row
+        BugRowMapper mapper = new BugRowMapper(rs);
+        do {
+            bugs.add(mapper.map(rs));
+        } while (rs.next());
+    }
+    
+    private static void readSummaries(ResultSet rs, List<BugSummary> bugs) throws SQLException {
+        if (!rs.next()) {
+            return;
+        }
+        BugSummaryRowMapper mapper = new BugSummaryRowMapper(rs);
+        do {
+            bugs.add(mapper.map(rs));
+        } while (rs.next());
     }
 }
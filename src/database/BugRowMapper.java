@@ -0,0 +1,73 @@
+package database;
+
+import model.Bug;
+import model.Bug.Priority;
+import model.Bug.Status;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the bugs table to Bug objects.
+ * Column positions are resolved once per ResultSet, and rows are hydrated
+ * through Bug's full constructor without reflection. Dates are read as
+ * epoch milliseconds, so no parsing happens per row. Only the assignee id is
+ * read; the service layer fills in the name from its dictionary.
+ */
+public class BugRowMapper {
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+    
+    private final int idCol;
+    private final int titleCol;
+    private final int descriptionCol;
+    private final int priorityCol;
+    private final int statusCol;
+    private final int assigneeIdCol;
+    private final int createdDateCol;
+    private final int updatedDateCol;
+    
+    public BugRowMapper(ResultSet rs) throws SQLException {
+        idCol = rs.findColumn("id");
+        titleCol = rs.findColumn("title");
+        descriptionCol = rs.findColumn("description");
+        priorityCol = rs.findColumn("priority");
+        statusCol = rs.findColumn("status");
+        assigneeIdCol = rs.findColumn("assignee_id");
+        createdDateCol = rs.findColumn("created_date");
+        updatedDateCol = rs.findColumn("updated_date");
+    }
+    
+    // Map the current row
+    public Bug map(ResultSet rs) throws SQLException {
+        return new Bug(
+            rs.getInt(idCol),
+            rs.getString(titleCol),
+            rs.getString(descriptionCol),
+            priorityOf(rs.getString(priorityCol)),
+            statusOf(rs.getString(statusCol)),
+            rs.getInt(assigneeIdCol),
+            null,
+            rs.getLong(createdDateCol),
+            rs.getLong(updatedDateCol)
+        );
+    }
+    
+    // Enum lookup by linear scan; the enums are tiny, so this beats valueOf's map lookup
+    static Priority priorityOf(String name) {
+        for (Priority p : PRIORITIES) {
+            if (p.name().equals(name)) {
+                return p;
+            }
+        }
+        return Priority.valueOf(name);
+    }
+    
+    static Status statusOf(String name) {
+        for (Status s : STATUSES) {
+            if (s.name().equals(name)) {
+                return s;
+            }
+        }
+        return Status.valueOf(name);
+    }
+}
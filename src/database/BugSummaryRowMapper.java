@@ -0,0 +1,43 @@
+package database;
+
+import model.BugSummary;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows selected with BugDAO.SUMMARY_COLUMNS to BugSummary objects,
+ * resolving column positions once per ResultSet like BugRowMapper.
+ */
+public class BugSummaryRowMapper {
+    private final int idCol;
+    private final int titleCol;
+    private final int priorityCol;
+    private final int statusCol;
+    private final int assigneeIdCol;
+    private final int createdDateCol;
+    private final int updatedDateCol;
+    
+    public BugSummaryRowMapper(ResultSet rs) throws SQLException {
+        idCol = rs.findColumn("id");
+        titleCol = rs.findColumn("title");
+        priorityCol = rs.findColumn("priority");
+        statusCol = rs.findColumn("status");
+        assigneeIdCol = rs.findColumn("assignee_id");
+        createdDateCol = rs.findColumn("created_date");
+        updatedDateCol = rs.findColumn("updated_date");
+    }
+    
+    // Map the current row
+    public BugSummary map(ResultSet rs) throws SQLException {
+        return new BugSummary(
+            rs.getInt(idCol),
+            rs.getString(titleCol),
+            BugRowMapper.priorityOf(rs.getString(priorityCol)),
+            BugRowMapper.statusOf(rs.getString(statusCol)),
+            rs.getInt(assigneeIdCol),
+            null,
+            rs.getLong(createdDateCol),
+            rs.getLong(updatedDateCol)
+        );
+    }
+}
@@ -0,0 +1,291 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe pool of JDBC connections.
+ * Borrowed connections are proxies: closing one returns the underlying
+ * connection to the pool, so DAOs can keep using try-with-resources.
+ * Each pooled connection keeps its own prepared statement cache.
+ */
+public class ConnectionPool {
+
+    // Opens a new physical connection for the pool
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long checkoutTimeoutMillis;
+    private final ConnectionFactory factory;
+    private final int statementCacheSize;
+    private final LinkedBlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final StatementCache.Metrics statementMetrics = new StatementCache.Metrics();
+
+    public ConnectionPool(String name, int maxSize, long checkoutTimeoutMillis,
+                          int statementCacheSize, ConnectionFactory factory) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.factory = factory;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    // Borrow a connection; close() on the returned connection gives it back
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + name + "' is closed");
+        }
+
+        // A thread that already holds a connection gets the same one back,
+        // so nested DAO calls cannot exhaust the pool and deadlock
+        Lease lease = currentLease.get();
+        if (lease != null) {
+            lease.depth++;
+            return wrap(lease);
+        }
+
+        long start = System.nanoTime();
+        Pooled physical = acquire();
+        recordWait(System.nanoTime() - start);
+
+        lease = new Lease(physical);
+        currentLease.set(lease);
+        inUse.incrementAndGet();
+        return wrap(lease);
+    }
+
+    private Pooled acquire() throws SQLException {
+        while (true) {
+            Pooled conn = idle.pollFirst();
+            if (conn == null) {
+                conn = openIfBelowLimit();
+            }
+            if (conn == null) {
+                try {
+                    conn = idle.pollFirst(checkoutTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+                if (conn == null) {
+                    timeouts.incrementAndGet();
+                    throw new SQLException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a connection from pool '" + name + "'");
+                }
+            }
+
+            if (!conn.connection.isClosed()) {
+                return conn;
+            }
+            // Connection died while idle, drop it and try again
+            discard(conn);
+        }
+    }
+
+    private Pooled openIfBelowLimit() throws SQLException {
+        while (true) {
+            int current = size.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection conn = factory.open();
+            return new Pooled(conn, new StatementCache(conn, statementCacheSize, statementMetrics));
+        } catch (SQLException | RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        checkouts.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void release(Lease lease) {
+        if (--lease.depth > 0) {
+            return;
+        }
+        currentLease.remove();
+        inUse.decrementAndGet();
+
+        Pooled conn = lease.physical;
+        try {
+            if (!conn.connection.getAutoCommit()) {
+                conn.connection.rollback();
+                conn.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(conn);
+            return;
+        }
+
+        if (closed) {
+            discard(conn);
+        } else {
+            idle.offerFirst(conn);
+        }
+    }
+
+    private void discard(Pooled conn) {
+        size.decrementAndGet();
+        conn.statements.closeAll();
+        try {
+            conn.connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private Connection wrap(Lease lease) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new LeaseHandler(lease));
+    }
+
+    // Close all idle connections; connections still in use are closed when returned
+    public void close() {
+        closed = true;
+        Pooled conn;
+        while ((conn = idle.pollFirst()) != null) {
+            discard(conn);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Pool metrics
+    public String getName() { return name; }
+    public int getMaxSize() { return maxSize; }
+    public int getSize() { return size.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getInUseCount() { return inUse.get(); }
+    public long getCheckoutCount() { return checkouts.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+
+    public double getAverageWaitMillis() {
+        long count = checkouts.get();
+        return count == 0 ? 0.0 : totalWaitNanos.get() / (count * 1_000_000.0);
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getStatementCacheHits() { return statementMetrics.hits.get(); }
+    public long getStatementCacheMisses() { return statementMetrics.misses.get(); }
+    public long getStatementCacheEvictions() { return statementMetrics.evictions.get(); }
+    public double getStatementCacheHitRatio() { return statementMetrics.getHitRatio(); }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[%s] size=%d/%d idle=%d inUse=%d checkouts=%d avgWait=%.3fms maxWait=%.3fms timeouts=%d"
+                + " stmtCache[hits=%d misses=%d evictions=%d hitRatio=%.2f]",
+            name, getSize(), maxSize, getIdleCount(), getInUseCount(), getCheckoutCount(),
+            getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(),
+            getStatementCacheHits(), getStatementCacheMisses(), getStatementCacheEvictions(),
+            getStatementCacheHitRatio());
+    }
+
+    // A physical connection together with its statement cache
+    private static class Pooled {
+        final Connection connection;
+        final StatementCache statements;
+
+        Pooled(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    // A physical connection held by one thread, possibly through nested borrows
+    private static class Lease {
+        final Pooled physical;
+        int depth = 1;
+
+        Lease(Pooled physical) {
+            this.physical = physical;
+        }
+    }
+
+    // Forwards calls to the physical connection until the borrower closes it
+    private class LeaseHandler implements InvocationHandler {
+        private final Lease lease;
+        private boolean returned;
+
+        LeaseHandler(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(lease);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || lease.physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + lease.physical.connection;
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                if (args.length == 1) {
+                    return lease.physical.statements.prepare((String) args[0]);
+                }
+                if (args.length == 2 && args[1] instanceof Integer) {
+                    return lease.physical.statements.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(lease.physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
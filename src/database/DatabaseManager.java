@@ -4,25 +4,135 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Database manager for SQLite connection and initialization
+ * Database manager for SQLite connection and initialization.
+ * The database runs in WAL mode with one dedicated writer connection and a
+ * pool of read-only connections, so reads never wait behind a write.
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:sqlite:bugtracker.db";
-    private static Connection connection;
     
-    // Get database connection
+    // Tunables, overridable with -Dbugtracker.db.<name>=<value>
+    private static final int READER_POOL_SIZE = Integer.getInteger("bugtracker.db.readers", 4);
+    private static final long CHECKOUT_TIMEOUT_MS = Long.getLong("bugtracker.db.checkoutTimeoutMs", 10_000L);
+    private static final int BUSY_TIMEOUT_MS = Integer.getInteger("bugtracker.db.busyTimeoutMs", 5_000);
+    private static final int WAL_AUTOCHECKPOINT_PAGES = Integer.getInteger("bugtracker.db.walAutoCheckpoint", 1000);
+    private static final long CHECKPOINT_INTERVAL_SEC = Long.getLong("bugtracker.db.checkpointIntervalSec", 300L);
+    private static final String CHECKPOINT_MODE = System.getProperty("bugtracker.db.checkpointMode", "PASSIVE");
+    private static final String SYNCHRONOUS = System.getProperty("bugtracker.db.synchronous", "NORMAL");
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("bugtracker.db.statementCacheSize", 64);
+    private static final boolean VERIFY_COUNTERS = Boolean.getBoolean("bugtracker.db.verifyCounters");
+    
+    private static ConnectionPool writerPool;
+    private static ConnectionPool readerPool;
+    private static ScheduledExecutorService checkpointScheduler;
+    private static boolean driverLoaded;
+    
+    // Get the single-connection writer pool, creating it on first use
+    public static synchronized ConnectionPool getWriterPool() {
+        if (writerPool == null || writerPool.isClosed()) {
+            writerPool = new ConnectionPool("writer", 1, CHECKOUT_TIMEOUT_MS,
+                STATEMENT_CACHE_SIZE, DatabaseManager::openWriter);
+            scheduleCheckpoints();
+        }
+        return writerPool;
+    }
+    
+    // Get the read-only connection pool, creating it on first use
+    public static synchronized ConnectionPool getReaderPool() {
+        if (readerPool == null || readerPool.isClosed()) {
+            readerPool = new ConnectionPool("reader", READER_POOL_SIZE, CHECKOUT_TIMEOUT_MS,
+                STATEMENT_CACHE_SIZE, DatabaseManager::openReader);
+        }
+        return readerPool;
+    }
+    
+    // Borrow the writer connection; closing it returns it to the pool
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getWriterPool().borrow();
+    }
+    
+    // Borrow a read-only connection for queries
+    public static Connection getReadConnection() throws SQLException {
+        return getReaderPool().borrow();
+    }
+    
+    // Open the writer connection and switch the database to WAL mode
+    private static Connection openWriter() throws SQLException {
+        Connection conn = openConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = " + SYNCHRONOUS);
+            stmt.execute("PRAGMA wal_autocheckpoint = " + WAL_AUTOCHECKPOINT_PAGES);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+    
+    // Open a connection that rejects writes
+    private static Connection openReader() throws SQLException {
+        Connection conn = openConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA query_only = ON");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+    
+    // Open a new physical connection with the shared busy timeout
+    private static Connection openConnection() throws SQLException {
+        loadDriver();
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+    
+    private static synchronized void loadDriver() throws SQLException {
+        if (!driverLoaded) {
             try {
                 Class.forName("org.sqlite.JDBC");
-                connection = DriverManager.getConnection(DB_URL);
+                driverLoaded = true;
             } catch (ClassNotFoundException e) {
                 throw new SQLException("SQLite JDBC driver not found", e);
             }
         }
-        return connection;
+    }
+    
+    // Run a WAL checkpoint with the configured mode (PASSIVE, FULL, RESTART or TRUNCATE)
+    public static void checkpoint() {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(" + CHECKPOINT_MODE + ")");
+        } catch (SQLException e) {
+            System.err.println("Error running WAL checkpoint: " + e.getMessage());
+        }
+    }
+    
+    // Periodically checkpoint the WAL so it does not grow while readers are active
+    private static void scheduleCheckpoints() {
+        if (checkpointScheduler != null || CHECKPOINT_INTERVAL_SEC <= 0) {
+            return;
+        }
+        checkpointScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointScheduler.scheduleWithFixedDelay(DatabaseManager::checkpoint,
+            CHECKPOINT_INTERVAL_SEC, CHECKPOINT_INTERVAL_SEC, TimeUnit.SECONDS);
     }
     
     // Initialize database tables
@@ -30,6 +140,8 @@ public class DatabaseManager {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             
+            // All dates are stored as INTEGER epoch milliseconds; a bug's assignee is a user id
+            
             // Create users table
             String createUsersTable = """
                 CREATE TABLE IF NOT EXISTS users (
@@ -39,24 +151,12 @@ public class DatabaseManager {
                     password_hash TEXT NOT NULL,
                     full_name TEXT NOT NULL,
                     user_type TEXT NOT NULL DEFAULT 'DEVELOPER',
-                    created_date TEXT NOT NULL,
-                    last_login_date TEXT
+                    created_date INTEGER NOT NULL,
+                    last_login_date INTEGER
                 )
             """;
             stmt.execute(createUsersTable);
             
-            // Migrate existing users table if user_type column doesn't exist
-            try {
-                String checkColumn = "SELECT user_type FROM users LIMIT 1";
-                stmt.executeQuery(checkColumn);
-            } catch (SQLException e) {
-                // Column doesn't exist, add it
-                System.out.println("Migrating users table: adding user_type column...");
-                String alterTable = "ALTER TABLE users ADD COLUMN user_type TEXT NOT NULL DEFAULT 'DEVELOPER'";
-                stmt.execute(alterTable);
-                System.out.println("Migration completed: user_type column added.");
-            }
-            
             // Create bugs table
             String createBugsTable = """
                 CREATE TABLE IF NOT EXISTS bugs (
@@ -65,10 +165,10 @@ public class DatabaseManager {
                     description TEXT NOT NULL,
                     priority TEXT NOT NULL,
                     status TEXT NOT NULL,
-                    assigned_to TEXT NOT NULL,
+                    assignee_id INTEGER REFERENCES users(id),
                     created_by INTEGER NOT NULL,
-                    created_date TEXT NOT NULL,
-                    updated_date TEXT NOT NULL,
+                    created_date INTEGER NOT NULL,
+                    updated_date INTEGER NOT NULL,
                     FOREIGN KEY (created_by) REFERENCES users(id)
                 )
             """;
@@ -83,7 +183,7 @@ public class DatabaseManager {
                     action TEXT NOT NULL,
                     details TEXT NOT NULL,
                     bug_id INTEGER,
-                    timestamp TEXT NOT NULL,
+                    timestamp INTEGER NOT NULL,
                     FOREIGN KEY (user_id) REFERENCES users(id),
                     FOREIGN KEY (bug_id) REFERENCES bugs(id)
                 )
@@ -121,7 +221,7 @@ public class DatabaseManager {
                     file_path TEXT NOT NULL,
                     file_size INTEGER NOT NULL,
                     uploaded_by TEXT NOT NULL,
-                    upload_date TEXT NOT NULL,
+                    upload_date INTEGER NOT NULL,
                     FOREIGN KEY (bug_id) REFERENCES bugs(id)
                 )
             """;
@@ -136,7 +236,7 @@ public class DatabaseManager {
                     username TEXT NOT NULL,
                     hours_spent REAL NOT NULL,
                     description TEXT,
-                    log_date TEXT NOT NULL,
+                    log_date INTEGER NOT NULL,
                     FOREIGN KEY (bug_id) REFERENCES bugs(id),
                     FOREIGN KEY (user_id) REFERENCES users(id)
                 )
@@ -151,13 +251,21 @@ public class DatabaseManager {
                     user_id INTEGER NOT NULL,
                     username TEXT NOT NULL,
                     comment_text TEXT NOT NULL,
-                    created_date TEXT NOT NULL,
+                    created_date INTEGER NOT NULL,
                     FOREIGN KEY (bug_id) REFERENCES bugs(id),
                     FOREIGN KEY (user_id) REFERENCES users(id)
                 )
             """;
             stmt.execute(createCommentsTable);
             
+            // Apply versioned migrations (columns added later, indexes)
+            SchemaMigrator.migrate(conn);
+            
+            // Optional full recount of the statistics counters (O(bugs), off by default)
+            if (VERIFY_COUNTERS) {
+                BugCounterDAO.repairIfInconsistent();
+            }
+            
             System.out.println("Database initialized successfully!");
             
         } catch (SQLException e) {
@@ -166,14 +274,20 @@ public class DatabaseManager {
         }
     }
     
-    // Close database connection
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    // Close all pooled connections (called once at application shutdown)
+    public static synchronized void closeConnection() {
+        if (checkpointScheduler != null) {
+            checkpointScheduler.shutdownNow();
+            checkpointScheduler = null;
+        }
+        if (readerPool != null) {
+            readerPool.close();
+            readerPool = null;
+        }
+        if (writerPool != null) {
+            checkpoint();
+            writerPool.close();
+            writerPool = null;
         }
     }
 }
@@ -0,0 +1,57 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns free-text search input into an FTS5 MATCH expression.
+ * Quoted text becomes a phrase query; every other word becomes a prefix query,
+ * and all terms must match. User input is never passed to FTS5 unescaped.
+ */
+public final class FtsQuery {
+    
+    private FtsQuery() {
+    }
+    
+    // Build the MATCH expression, or null if the input has nothing searchable
+    public static String toMatchExpression(String input) {
+        if (input == null) {
+            return null;
+        }
+        
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean inPhrase = false;
+        
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                // Closing quote ends a phrase, opening quote ends any pending word
+                addTerm(terms, word, inPhrase);
+                inPhrase = !inPhrase;
+            } else if (Character.isLetterOrDigit(c) || c == '_') {
+                word.append(c);
+            } else if (inPhrase) {
+                // Keep phrase words separated; FTS5 tokenizes inside the quotes
+                if (word.length() > 0 && word.charAt(word.length() - 1) != ' ') {
+                    word.append(' ');
+                }
+            } else {
+                addTerm(terms, word, false);
+            }
+        }
+        addTerm(terms, word, inPhrase);
+        
+        return terms.isEmpty() ? null : String.join(" AND ", terms);
+    }
+    
+    private static void addTerm(List<String> terms, StringBuilder word, boolean phrase) {
+        String text = word.toString().trim();
+        word.setLength(0);
+        if (text.isEmpty()) {
+            return;
+        }
+        // Tokens only contain letters, digits, '_' and spaces, so quoting needs no escaping
+        terms.add(phrase ? "\"" + text + "\"" : "\"" + text + "\"*");
+    }
+}
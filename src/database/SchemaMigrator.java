@@ -0,0 +1,436 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Applies versioned schema migrations on top of the base tables.
+ * The current schema version is stored in SQLite's PRAGMA user_version;
+ * each migration runs in its own transaction together with the version bump.
+ */
+public class SchemaMigrator {
+    
+    // A single schema change
+    private interface Change {
+        void apply(Statement stmt) throws SQLException;
+    }
+    
+    private static class Migration {
+        final int version;
+        final String description;
+        final Change change;
+        
+        Migration(int version, String description, Change change) {
+            this.version = version;
+            this.description = description;
+            this.change = change;
+        }
+    }
+    
+    // Ordered by version; never edit a released migration, append a new one instead
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "add users.user_type", SchemaMigrator::addUserType),
+        new Migration(2, "indexes for bug filters and activity lookups", SchemaMigrator::addQueryIndexes),
+        new Migration(3, "store dates as epoch milliseconds", SchemaMigrator::convertDatesToEpochMillis),
+        new Migration(4, "full-text index for bug search", SchemaMigrator::addBugSearchIndex),
+        new Migration(5, "index for assignee filter", stmt -> {
+            if (columnExists(stmt, "bugs", "assigned_to")) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_assigned_to_id ON bugs(assigned_to, id)");
+            }
+        }),
+        new Migration(6, "covering index for status/priority counts", stmt ->
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_status_priority ON bugs(status, priority)")),
+        new Migration(7, "trigger-maintained bug counters", SchemaMigrator::addBugCounters),
+        new Migration(8, "daily activity rollups for archived entries", stmt ->
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS activity_rollups (
+                    day INTEGER NOT NULL,
+                    action TEXT NOT NULL,
+                    count INTEGER NOT NULL,
+                    PRIMARY KEY (day, action)
+                ) WITHOUT ROWID
+            """)),
+        // Activity feed filtered by action, keyset-paged on (timestamp, id); id is the
+        // rowid, which every index already carries as its last column
+        new Migration(9, "index for the action-filtered activity feed", stmt ->
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_action_ts ON activity_logs(action, timestamp)")),
+        new Migration(10, "bugs.assigned_to text becomes assignee_id referencing users", SchemaMigrator::normalizeAssignee)
+    );
+    
+    // Bring the database up to the latest schema version
+    public static void migrate(Connection conn) throws SQLException {
+        int current = getSchemaVersion(conn);
+        
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            
+            System.out.println("Applying migration " + migration.version + ": " + migration.description + "...");
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                migration.change.apply(stmt);
+                stmt.execute("PRAGMA user_version = " + migration.version);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Migration " + migration.version + " failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            current = migration.version;
+        }
+    }
+    
+    // Read the schema version stored in the database header
+    public static int getSchemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    // Check whether a table already has a column
+    static boolean columnExists(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    // Migration 1: databases created before user roles lack the user_type column
+    private static void addUserType(Statement stmt) throws SQLException {
+        if (!columnExists(stmt, "users", "user_type")) {
+            stmt.execute("ALTER TABLE users ADD COLUMN user_type TEXT NOT NULL DEFAULT 'DEVELOPER'");
+        }
+    }
+    
+    // Migration 2: indexes matching the WHERE + ORDER BY of the hot queries
+    private static void addQueryIndexes(Statement stmt) throws SQLException {
+        // filterByStatus / filterByPriority / getBugsByUser: equality filter, newest id first
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_status_id ON bugs(status, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_priority_id ON bugs(priority, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_created_by_id ON bugs(created_by, id)");
+        
+        // getActivitiesByBug / getActivitiesByUser: equality filter, newest timestamp first
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_bug_ts ON activity_logs(bug_id, timestamp)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_user_ts ON activity_logs(user_id, timestamp)");
+        
+        // getAllActivities: ORDER BY timestamp DESC LIMIT n reads the index tail, no sort
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_ts ON activity_logs(timestamp)");
+    }
+    
+    // Migration 3: TEXT 'yyyy-MM-dd HH:mm:ss' local-time dates become INTEGER epoch millis
+    private static void convertDatesToEpochMillis(Statement stmt) throws SQLException {
+        retypeDateColumns(stmt, "users", "created_date", "last_login_date");
+        retypeDateColumns(stmt, "bugs", "created_date", "updated_date");
+        retypeDateColumns(stmt, "activity_logs", "timestamp");
+        retypeDateColumns(stmt, "attachments", "upload_date");
+        retypeDateColumns(stmt, "time_logs", "log_date");
+        retypeDateColumns(stmt, "comments", "created_date");
+        
+        // Rebuilding a table drops its indexes, so restore them and add the date indexes
+        addQueryIndexes(stmt);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_created_date ON bugs(created_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_updated_date ON bugs(updated_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_time_logs_bug_date ON time_logs(bug_id, log_date)");
+    }
+    
+    // Migration 4: external-content FTS5 index over bugs, kept in sync by triggers.
+    // Databases created with assignee_id get their search index from migration 10 instead.
+    private static void addBugSearchIndex(Statement stmt) throws SQLException {
+        if (!columnExists(stmt, "bugs", "assigned_to")) {
+            return;
+        }
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS bugs_fts USING fts5(
+                title, description, assigned_to,
+                content = 'bugs', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS bugs_fts_insert AFTER INSERT ON bugs BEGIN
+                INSERT INTO bugs_fts (rowid, title, description, assigned_to)
+                VALUES (new.id, new.title, new.description, new.assigned_to);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS bugs_fts_delete AFTER DELETE ON bugs BEGIN
+                INSERT INTO bugs_fts (bugs_fts, rowid, title, description, assigned_to)
+                VALUES ('delete', old.id, old.title, old.description, old.assigned_to);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS bugs_fts_update AFTER UPDATE OF title, description, assigned_to ON bugs BEGIN
+                INSERT INTO bugs_fts (bugs_fts, rowid, title, description, assigned_to)
+                VALUES ('delete', old.id, old.title, old.description, old.assigned_to);
+                INSERT INTO bugs_fts (rowid, title, description, assigned_to)
+                VALUES (new.id, new.title, new.description, new.assigned_to);
+            END
+        """);
+        
+        // Index the rows that already exist
+        stmt.execute("INSERT INTO bugs_fts (bugs_fts) VALUES ('rebuild')");
+    }
+    
+    // Migration 7: bug_counters holds one row per dashboard bucket, adjusted by triggers
+    private static void addBugCounters(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS bug_counters (
+                dimension TEXT NOT NULL,
+                bucket TEXT NOT NULL,
+                count INTEGER NOT NULL,
+                PRIMARY KEY (dimension, bucket)
+            ) WITHOUT ROWID
+        """);
+        
+        // Databases created with assignee_id get their triggers and counts from migration 10
+        if (!columnExists(stmt, "bugs", "assigned_to")) {
+            return;
+        }
+        createBugCounterTriggers(stmt, "assigned_to", "%s.assigned_to");
+        
+        // Recount as of this schema version; migration 10 recounts again by assignee_id
+        stmt.execute("DELETE FROM bug_counters");
+        stmt.execute("""
+            INSERT INTO bug_counters (dimension, bucket, count)
+            SELECT 'total', '', COUNT(*) FROM bugs
+            UNION ALL SELECT 'status', status, COUNT(*) FROM bugs GROUP BY status
+            UNION ALL SELECT 'priority', priority, COUNT(*) FROM bugs GROUP BY priority
+            UNION ALL SELECT 'status_priority', status || '|' || priority, COUNT(*) FROM bugs GROUP BY status, priority
+            UNION ALL SELECT 'assignee', assigned_to, COUNT(*) FROM bugs GROUP BY assigned_to
+        """);
+    }
+    
+    // Counter triggers on bugs; assigneeBucket is a format string taking the row alias ("new"/"old")
+    private static void createBugCounterTriggers(Statement stmt, String assigneeColumn, String assigneeBucket) throws SQLException {
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bug_counters_insert AFTER INSERT ON bugs BEGIN "
+            + adjustCounters("new", 1, assigneeBucket) + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bug_counters_delete AFTER DELETE ON bugs BEGIN "
+            + adjustCounters("old", -1, assigneeBucket) + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bug_counters_update AFTER UPDATE OF status, priority, " + assigneeColumn + " ON bugs BEGIN "
+            + adjustCounters("old", -1, assigneeBucket) + adjustCounters("new", 1, assigneeBucket) + " END");
+    }
+    
+    // Trigger statements moving every bucket of one row ("new" or "old") by delta
+    private static String adjustCounters(String row, int delta, String assigneeBucket) {
+        String[][] buckets = {
+            { BugCounterDAO.TOTAL, "''" },
+            { BugCounterDAO.STATUS, row + ".status" },
+            { BugCounterDAO.PRIORITY, row + ".priority" },
+            { BugCounterDAO.STATUS_PRIORITY, row + ".status || '|' || " + row + ".priority" },
+            { BugCounterDAO.ASSIGNEE, String.format(assigneeBucket, row) }
+        };
+        
+        StringBuilder sql = new StringBuilder();
+        for (String[] bucket : buckets) {
+            String dimension = "'" + bucket[0] + "'";
+            if (delta > 0) {
+                sql.append("INSERT OR IGNORE INTO bug_counters (dimension, bucket, count) VALUES (")
+                   .append(dimension).append(", ").append(bucket[1]).append(", 0); ");
+            }
+            sql.append("UPDATE bug_counters SET count = count + (").append(delta).append(") WHERE dimension = ")
+               .append(dimension).append(" AND bucket = ").append(bucket[1]).append("; ");
+        }
+        return sql.toString();
+    }
+    
+    // Migration 10: replace the free-text assigned_to with assignee_id -> users(id).
+    // Names are matched to a username, then to a full name; names with no account get a
+    // placeholder user that cannot log in, so no assignment is lost.
+    private static void normalizeAssignee(Statement stmt) throws SQLException {
+        // Databases created with assignee_id only need the indexes, search index and counters
+        if (columnExists(stmt, "bugs", "assigned_to")) {
+            replaceAssignedTo(stmt);
+        }
+        
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_status_id ON bugs(status, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_priority_id ON bugs(priority, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_created_by_id ON bugs(created_by, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_assignee_id ON bugs(assignee_id, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_created_date ON bugs(created_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_updated_date ON bugs(updated_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_bugs_status_priority ON bugs(status, priority)");
+        
+        addAssigneeSearchIndex(stmt);
+        
+        createBugCounterTriggers(stmt, "assignee_id", "COALESCE(%s.assignee_id, 0)");
+        BugCounterDAO.populate(stmt);
+    }
+    
+    // Migration 10 on a database that still has assigned_to: add placeholder users and
+    // rebuild bugs with assignee_id
+    private static void replaceAssignedTo(Statement stmt) throws SQLException {
+        String matchUser = "COALESCE((SELECT id FROM users WHERE username = b.assigned_to), "
+            + "(SELECT MIN(id) FROM users WHERE full_name = b.assigned_to COLLATE NOCASE))";
+        stmt.execute("INSERT INTO users (username, email, password_hash, full_name, user_type, created_date) "
+            + "SELECT DISTINCT b.assigned_to, 'legacy:' || b.assigned_to, '!', b.assigned_to, 'DEVELOPER', "
+            + "CAST(strftime('%s', 'now') AS INTEGER) * 1000 "
+            + "FROM bugs b WHERE b.assigned_to <> '' AND " + matchUser + " IS NULL");
+        
+        // The old search index and its triggers read assigned_to
+        stmt.execute("DROP TRIGGER IF EXISTS bugs_fts_insert");
+        stmt.execute("DROP TRIGGER IF EXISTS bugs_fts_delete");
+        stmt.execute("DROP TRIGGER IF EXISTS bugs_fts_update");
+        stmt.execute("DROP TABLE IF EXISTS bugs_fts");
+        
+        // Rebuild bugs without assigned_to (dropping the table also drops its indexes and counter triggers)
+        stmt.execute("""
+            CREATE TABLE bugs_new (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT NOT NULL,
+                description TEXT NOT NULL,
+                priority TEXT NOT NULL,
+                status TEXT NOT NULL,
+                assignee_id INTEGER REFERENCES users(id),
+                created_by INTEGER NOT NULL,
+                created_date INTEGER NOT NULL,
+                updated_date INTEGER NOT NULL,
+                FOREIGN KEY (created_by) REFERENCES users(id)
+            )
+        """);
+        stmt.execute("INSERT INTO bugs_new (id, title, description, priority, status, assignee_id, created_by, created_date, updated_date) "
+            + "SELECT b.id, b.title, b.description, b.priority, b.status, " + matchUser + ", "
+            + "b.created_by, b.created_date, b.updated_date FROM bugs b");
+        carrySequence(stmt, "bugs", "bugs_new");
+        stmt.execute("DROP TABLE bugs");
+        stmt.execute("ALTER TABLE bugs_new RENAME TO bugs");
+    }
+    
+    // Full-text index over bugs with the assignee's current username. The external content
+    // is a view joining users; triggers keep it in step with bug edits and user renames.
+    private static void addAssigneeSearchIndex(Statement stmt) throws SQLException {
+        String nameOf = "(SELECT username FROM users WHERE id = %s.assignee_id)";
+        String newName = String.format(nameOf, "new");
+        String oldName = String.format(nameOf, "old");
+        
+        stmt.execute("""
+            CREATE VIEW IF NOT EXISTS bugs_search AS
+            SELECT b.id, b.title, b.description, u.username AS assignee
+            FROM bugs b LEFT JOIN users u ON u.id = b.assignee_id
+        """);
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS bugs_fts USING fts5(
+                title, description, assignee,
+                content = 'bugs_search', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+        """);
+        
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bugs_fts_insert AFTER INSERT ON bugs BEGIN "
+            + "INSERT INTO bugs_fts (rowid, title, description, assignee) VALUES (new.id, new.title, new.description, " + newName + "); END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bugs_fts_delete AFTER DELETE ON bugs BEGIN "
+            + "INSERT INTO bugs_fts (bugs_fts, rowid, title, description, assignee) VALUES ('delete', old.id, old.title, old.description, " + oldName + "); END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bugs_fts_update AFTER UPDATE OF title, description, assignee_id ON bugs BEGIN "
+            + "INSERT INTO bugs_fts (bugs_fts, rowid, title, description, assignee) VALUES ('delete', old.id, old.title, old.description, " + oldName + "); "
+            + "INSERT INTO bugs_fts (rowid, title, description, assignee) VALUES (new.id, new.title, new.description, " + newName + "); END");
+        
+        // A rename re-indexes that user's bugs; the bug rows themselves are untouched
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS bugs_fts_user_rename AFTER UPDATE OF username ON users BEGIN
+                INSERT INTO bugs_fts (bugs_fts, rowid, title, description, assignee)
+                SELECT 'delete', id, title, description, old.username FROM bugs WHERE assignee_id = old.id;
+                INSERT INTO bugs_fts (rowid, title, description, assignee)
+                SELECT id, title, description, new.username FROM bugs WHERE assignee_id = new.id;
+            END
+        """);
+        // Deleting a user unassigns their bugs (which also updates the index and counters)
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS bugs_unassign_deleted_user BEFORE DELETE ON users BEGIN
+                UPDATE bugs SET assignee_id = NULL WHERE assignee_id = old.id;
+            END
+        """);
+        
+        stmt.execute("INSERT INTO bugs_fts (bugs_fts) VALUES ('rebuild')");
+    }
+    
+    // SQLite cannot change a column type in place: rebuild the table with the date
+    // columns declared INTEGER and copy the rows across, converting text values
+    private static void retypeDateColumns(Statement stmt, String table, String... dateColumns) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        boolean needsRebuild = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                String name = rs.getString("name");
+                columns.add(name);
+                if (isDateColumn(name, dateColumns) && !"INTEGER".equalsIgnoreCase(rs.getString("type"))) {
+                    needsRebuild = true;
+                }
+            }
+        }
+        if (!needsRebuild) {
+            return;
+        }
+        
+        String createSql;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+            if (!rs.next()) {
+                return;
+            }
+            createSql = rs.getString(1);
+        }
+        
+        String newTable = table + "_new";
+        createSql = Pattern.compile("(?i)CREATE TABLE\\s+(IF NOT EXISTS\\s+)?\"?" + table + "\"?")
+            .matcher(createSql).replaceFirst("CREATE TABLE " + newTable);
+        for (String column : dateColumns) {
+            createSql = Pattern.compile("(?i)(\\b" + column + "\\s+)TEXT\\b")
+                .matcher(createSql).replaceFirst("$1INTEGER");
+        }
+        
+        StringBuilder select = new StringBuilder();
+        for (String column : columns) {
+            if (select.length() > 0) {
+                select.append(", ");
+            }
+            if (isDateColumn(column, dateColumns)) {
+                // 'utc' treats the stored text as local time, matching how it was written
+                select.append("CASE WHEN typeof(").append(column).append(") = 'text' THEN ")
+                      .append("COALESCE(CAST(strftime('%s', ").append(column).append(", 'utc') AS INTEGER) * 1000, 0) ")
+                      .append("ELSE ").append(column).append(" END");
+            } else {
+                select.append(column);
+            }
+        }
+        String columnList = String.join(", ", columns);
+        
+        stmt.execute(createSql);
+        stmt.execute("INSERT INTO " + newTable + " (" + columnList + ") SELECT " + select + " FROM " + table);
+        carrySequence(stmt, table, newTable);
+        stmt.execute("DROP TABLE " + table);
+        stmt.execute("ALTER TABLE " + newTable + " RENAME TO " + table);
+    }
+    
+    // Give a rebuilt AUTOINCREMENT table the old table's id high-water mark. Copying the rows
+    // only advances it to MAX(id), so ids of bugs deleted from the top of the range would be
+    // reused while activity logs and archive segments still refer to them. The entry follows
+    // the table through the final RENAME.
+    private static void carrySequence(Statement stmt, String table, String newTable) throws SQLException {
+        stmt.execute("UPDATE sqlite_sequence SET seq = (SELECT MAX(seq) FROM sqlite_sequence "
+            + "WHERE name IN ('" + table + "', '" + newTable + "')) WHERE name = '" + newTable + "'");
+        stmt.execute("INSERT INTO sqlite_sequence (name, seq) SELECT '" + newTable + "', seq FROM sqlite_sequence "
+            + "WHERE name = '" + table + "' AND NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = '" + newTable + "')");
+    }
+    
+    private static boolean isDateColumn(String column, String[] dateColumns) {
+        for (String dateColumn : dateColumns) {
+            if (dateColumn.equalsIgnoreCase(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,198 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * Cached statements are handed out as proxies: closing one resets it and keeps it
+ * prepared for the next caller instead of closing it.
+ * Not thread-safe; a connection is only used by one thread at a time.
+ */
+class StatementCache {
+
+    // Hit/miss/eviction counters shared by all caches of a pool
+    static class Metrics {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+        double getHitRatio() {
+            long h = hits.get();
+            long total = h + misses.get();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Metrics metrics;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(Connection connection, int maxSize, Metrics metrics) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Return a cached statement for the SQL, preparing it on a miss
+    PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    // Same as prepare(String), for statements that return generated keys
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        if (maxSize <= 0) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            metrics.hits.incrementAndGet();
+            entry.inUse = true;
+            return wrap(entry);
+        }
+
+        metrics.misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        if (entry != null) {
+            // Same SQL already running further up this thread's stack; don't share it
+            return statement;
+        }
+
+        entry = new Entry(statement);
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictIfNeeded();
+        return wrap(entry);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            metrics.evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    // Close every cached statement, used when the physical connection is discarded
+    void closeAll() {
+        for (Entry entry : entries.values()) {
+            closeQuietly(entry.statement);
+        }
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void release(Entry entry) {
+        try {
+            if (entry.openResultSet != null) {
+                entry.openResultSet.close();
+                entry.openResultSet = null;
+            }
+            // A caller that failed before executeBatch leaves rows queued; the next lease must not run them
+            entry.statement.clearBatch();
+            entry.statement.clearParameters();
+        } catch (SQLException e) {
+            // Statement is in an unknown state, drop it from the cache
+            entries.values().remove(entry);
+            entry.evicted = true;
+        }
+        entry.inUse = false;
+        if (entry.evicted) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement wrap(Entry entry) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            new CheckoutHandler(entry));
+    }
+
+    private static class Entry {
+        final PreparedStatement statement;
+        ResultSet openResultSet;
+        boolean inUse;
+        boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    // Forwards to the cached statement until the caller closes it
+    private class CheckoutHandler implements InvocationHandler {
+        private final Entry entry;
+        private boolean returned;
+
+        CheckoutHandler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + entry.statement;
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet) {
+                    entry.openResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package database;
 
+import model.Timestamps;
 import model.User;
 import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for User operations
  */
 public class UserDAO {
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
     // Hash password using SHA-256
     public static String hashPassword(String password) {
         try {
@@ -42,7 +43,7 @@ public class UserDAO {
             pstmt.setString(3, user.getPasswordHash());
             pstmt.setString(4, user.getFullName());
             pstmt.setString(5, user.getUserType().name());
-            pstmt.setString(6, LocalDateTime.now().format(formatter));
+            pstmt.setLong(6, Timestamps.now());
             
             pstmt.executeUpdate();
             return true;
@@ -57,7 +58,7 @@ public class UserDAO {
     public static User loginUser(String username, String password) {
         String sql = "SELECT * FROM users WHERE username = ? AND password_hash = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
@@ -85,7 +86,7 @@ public class UserDAO {
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, LocalDateTime.now().format(formatter));
+            pstmt.setLong(1, Timestamps.now());
             pstmt.setInt(2, userId);
             pstmt.executeUpdate();
             
@@ -98,7 +99,7 @@ public class UserDAO {
     public static User getUserByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
@@ -119,7 +120,7 @@ public class UserDAO {
     public static boolean usernameExists(String username) {
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
@@ -140,7 +141,7 @@ public class UserDAO {
     public static boolean emailExists(String email) {
         String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, email);
@@ -157,6 +158,97 @@ public class UserDAO {
         return false;
     }
     
+    // Flags returned by findTaken
+    public static final int USERNAME_TAKEN = 1;
+    public static final int EMAIL_TAKEN = 2;
+    
+    // Check username and email in one query (both columns are UNIQUE, so both lookups use an index);
+    // returns a combination of USERNAME_TAKEN and EMAIL_TAKEN
+    public static int findTaken(String username, String email) {
+        String sql = "SELECT MAX(username = ?), MAX(email = ?) FROM users WHERE username = ? OR email = ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, username);
+            pstmt.setString(2, email);
+            pstmt.setString(3, username);
+            pstmt.setString(4, email);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return (rs.getInt(1) == 1 ? USERNAME_TAKEN : 0) | (rs.getInt(2) == 1 ? EMAIL_TAKEN : 0);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error checking username/email: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    // Every username and email, as {username, email} pairs (used to build the availability filter)
+    public static List<String[]> getUsernamesAndEmails() {
+        List<String[]> pairs = new ArrayList<>();
+        String sql = "SELECT username, email FROM users";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                pairs.add(new String[] { rs.getString(1), rs.getString(2) });
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading usernames: " + e.getMessage());
+        }
+        
+        return pairs;
+    }
+    
+    // {username, full name} of every user by id (the assignee dictionary)
+    public static Map<Integer, String[]> getUserNamesById() {
+        Map<Integer, String[]> names = new HashMap<>();
+        String sql = "SELECT id, username, full_name FROM users";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                names.put(rs.getInt(1), new String[] { rs.getString(2), rs.getString(3) });
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading usernames: " + e.getMessage());
+        }
+        
+        return names;
+    }
+    
+    // Id of the user with this username, else with this full name (case-insensitive); 0 if none
+    public static int findUserIdByName(String name) {
+        String sql = """
+            SELECT COALESCE((SELECT id FROM users WHERE username = ?),
+                            (SELECT MIN(id) FROM users WHERE full_name = ? COLLATE NOCASE), 0)
+        """;
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, name);
+            pstmt.setString(2, name);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error looking up user: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
     // Extract User object from ResultSet
     private static User extractUserFromResultSet(ResultSet rs) throws SQLException {
         User user = new User();
@@ -177,14 +269,11 @@ public class UserDAO {
             user.setUserType(User.UserType.DEVELOPER);
         }
         
-        String createdDateStr = rs.getString("created_date");
-        if (createdDateStr != null) {
-            user.setCreatedDate(LocalDateTime.parse(createdDateStr, formatter));
-        }
+        user.setCreatedDate(Timestamps.toLocalDateTime(rs.getLong("created_date")));
         
-        String lastLoginStr = rs.getString("last_login_date");
-        if (lastLoginStr != null) {
-            user.setLastLoginDate(LocalDateTime.parse(lastLoginStr, formatter));
+        long lastLogin = rs.getLong("last_login_date");
+        if (!rs.wasNull()) {
+            user.setLastLoginDate(Timestamps.toLocalDateTime(lastLogin));
         }
         
         return user;
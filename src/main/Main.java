@@ -2,6 +2,7 @@ package main;
 
 import ui.ModernLoginFrame;
 import database.DatabaseManager;
+import service.ActivityLogService;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.plaf.FontUIResource;
@@ -16,6 +17,17 @@ public class Main {
         // Initialize database
         DatabaseManager.initializeDatabase();
         
+        // Pooled connections live for the whole process and are closed on exit,
+        // after queued activity logs have been written
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ActivityLogService.shutdown();
+            DatabaseManager.closeConnection();
+        }, "db-shutdown"));
+        
+        // Move old activity log entries to the archive in the background (only when
+        // -Dbugtracker.activity.retentionDays is set)
+        ActivityLogService.startRetention();
+        
         // Set modern font globally
         setUIFont(new FontUIResource("Segoe UI", Font.PLAIN, 12));
         
@@ -1,8 +1,5 @@
 package model;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
 /**
  * Model class for activity logging
  */
@@ -13,7 +10,7 @@ public class ActivityLog {
     private String action;
     private String details;
     private int bugId;
-    private String timestamp;
+    private long timestamp;   // epoch millis
     
     public ActivityLog(int userId, String username, String action, String details, int bugId) {
         this.userId = userId;
@@ -21,7 +18,7 @@ public class ActivityLog {
         this.action = action;
         this.details = details;
         this.bugId = bugId;
-        this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.timestamp = Timestamps.now();
     }
     
     // Getters and setters
@@ -43,11 +40,15 @@ public class ActivityLog {
     public int getBugId() { return bugId; }
     public void setBugId(int bugId) { this.bugId = bugId; }
     
-    public String getTimestamp() { return timestamp; }
-    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    
+    public String getFormattedTimestamp() {
+        return Timestamps.format(timestamp, Timestamps.FULL);
+    }
     
     @Override
     public String toString() {
-        return String.format("[%s] %s: %s - %s", timestamp, username, action, details);
+        return String.format("[%s] %s: %s - %s", getFormattedTimestamp(), username, action, details);
     }
 }
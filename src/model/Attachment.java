@@ -1,8 +1,5 @@
 package model;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
 /**
  * Model class for bug attachments
  */
@@ -13,7 +10,7 @@ public class Attachment {
     private String filePath;
     private long fileSize;
     private String uploadedBy;
-    private String uploadDate;
+    private long uploadDate;   // epoch millis
     
     public Attachment(int bugId, String fileName, String filePath, long fileSize, String uploadedBy) {
         this.bugId = bugId;
@@ -21,7 +18,7 @@ public class Attachment {
         this.filePath = filePath;
         this.fileSize = fileSize;
         this.uploadedBy = uploadedBy;
-        this.uploadDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.uploadDate = Timestamps.now();
     }
     
     // Getters and setters
@@ -43,8 +40,12 @@ public class Attachment {
     public String getUploadedBy() { return uploadedBy; }
     public void setUploadedBy(String uploadedBy) { this.uploadedBy = uploadedBy; }
     
-    public String getUploadDate() { return uploadDate; }
-    public void setUploadDate(String uploadDate) { this.uploadDate = uploadDate; }
+    public long getUploadDate() { return uploadDate; }
+    public void setUploadDate(long uploadDate) { this.uploadDate = uploadDate; }
+    
+    public String getFormattedUploadDate() {
+        return Timestamps.format(uploadDate, Timestamps.FULL);
+    }
     
     public String getFormattedFileSize() {
         if (fileSize < 1024) return fileSize + " B";
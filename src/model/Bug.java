@@ -1,7 +1,6 @@
 package model;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Model class representing a Bug entity
@@ -14,9 +13,10 @@ public class Bug {
     private String description;
     private Priority priority;
     private Status status;
-    private String assignedTo;
-    private LocalDateTime createdDate;
-    private LocalDateTime updatedDate;
+    private int assigneeId;     // users.id, 0 = unassigned
+    private String assignedTo;  // assignee's username, shared from the service's dictionary
+    private long createdDate;   // epoch millis
+    private long updatedDate;   // epoch millis
     
     public enum Priority {
         LOW("Low"),
@@ -63,8 +63,28 @@ public class Bug {
         this.priority = priority;
         this.status = Status.NEW;
         this.assignedTo = assignedTo;
-        this.createdDate = LocalDateTime.now();
-        this.updatedDate = LocalDateTime.now();
+        this.createdDate = Timestamps.now();
+        this.updatedDate = this.createdDate;
+    }
+    
+    // Full constructor for rows loaded from the database (does not consume an id)
+    public Bug(int id, String title, String description, Priority priority, Status status,
+               int assigneeId, String assignedTo, long createdDate, long updatedDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+        this.assigneeId = assigneeId;
+        this.assignedTo = assignedTo;
+        this.createdDate = createdDate;
+        this.updatedDate = updatedDate;
+    }
+    
+    // Copy constructor (caches hand out copies since Bug is mutable)
+    public Bug(Bug other) {
+        this(other.id, other.title, other.description, other.priority, other.status,
+             other.assigneeId, other.assignedTo, other.createdDate, other.updatedDate);
     }
     
     // Getters and Setters
@@ -78,7 +98,7 @@ public class Bug {
     
     public void setTitle(String title) {
         this.title = title;
-        this.updatedDate = LocalDateTime.now();
+        this.updatedDate = Timestamps.now();
     }
     
     public String getDescription() {
@@ -87,7 +107,7 @@ public class Bug {
     
     public void setDescription(String description) {
         this.description = description;
-        this.updatedDate = LocalDateTime.now();
+        this.updatedDate = Timestamps.now();
     }
     
     public Priority getPriority() {
@@ -96,7 +116,7 @@ public class Bug {
     
     public void setPriority(Priority priority) {
         this.priority = priority;
-        this.updatedDate = LocalDateTime.now();
+        this.updatedDate = Timestamps.now();
     }
     
     public Status getStatus() {
@@ -105,34 +125,51 @@ public class Bug {
     
     public void setStatus(Status status) {
         this.status = status;
-        this.updatedDate = LocalDateTime.now();
+        this.updatedDate = Timestamps.now();
     }
     
     public String getAssignedTo() {
         return assignedTo;
     }
     
-    public void setAssignedTo(String assignedTo) {
+    public int getAssigneeId() {
+        return assigneeId;
+    }
+    
+    // Reassign to the user with this id and name
+    public void setAssignee(int assigneeId, String assignedTo) {
+        this.assigneeId = assigneeId;
+        this.assignedTo = assignedTo;
+        this.updatedDate = Timestamps.now();
+    }
+    
+    // Fill in the display name for the current assignee id (not a modification)
+    public void setAssigneeName(String assignedTo) {
         this.assignedTo = assignedTo;
-        this.updatedDate = LocalDateTime.now();
     }
     
     public LocalDateTime getCreatedDate() {
-        return createdDate;
+        return Timestamps.toLocalDateTime(createdDate);
     }
     
     public LocalDateTime getUpdatedDate() {
+        return Timestamps.toLocalDateTime(updatedDate);
+    }
+    
+    public long getCreatedMillis() {
+        return createdDate;
+    }
+    
+    public long getUpdatedMillis() {
         return updatedDate;
     }
     
     public String getFormattedCreatedDate() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return createdDate.format(formatter);
+        return Timestamps.format(createdDate, Timestamps.DISPLAY);
     }
     
     public String getFormattedUpdatedDate() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return updatedDate.format(formatter);
+        return Timestamps.format(updatedDate, Timestamps.DISPLAY);
     }
     
     @Override
@@ -0,0 +1,87 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a bug list: everything a list or dashboard shows, without the
+ * description. List queries select only these columns, so large descriptions are
+ * neither read from disk nor held on the heap; the full Bug is loaded by id when a
+ * details or edit dialog opens.
+ */
+public class BugSummary {
+    private final int id;
+    private final String title;
+    private final Bug.Priority priority;
+    private final Bug.Status status;
+    private final int assigneeId;   // users.id, 0 = unassigned
+    private String assignedTo;      // filled in by the service's assignee dictionary
+    private final long createdDate; // epoch millis
+    private final long updatedDate; // epoch millis
+    
+    public BugSummary(int id, String title, Bug.Priority priority, Bug.Status status,
+                      int assigneeId, String assignedTo, long createdDate, long updatedDate) {
+        this.id = id;
+        this.title = title;
+        this.priority = priority;
+        this.status = status;
+        this.assigneeId = assigneeId;
+        this.assignedTo = assignedTo;
+        this.createdDate = createdDate;
+        this.updatedDate = updatedDate;
+    }
+    
+    // Summary of a bug already in memory
+    public BugSummary(Bug bug) {
+        this(bug.getId(), bug.getTitle(), bug.getPriority(), bug.getStatus(), bug.getAssigneeId(),
+             bug.getAssignedTo(), bug.getCreatedMillis(), bug.getUpdatedMillis());
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public Bug.Priority getPriority() {
+        return priority;
+    }
+    
+    public Bug.Status getStatus() {
+        return status;
+    }
+    
+    public int getAssigneeId() {
+        return assigneeId;
+    }
+    
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+    
+    public void setAssigneeName(String assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return Timestamps.toLocalDateTime(createdDate);
+    }
+    
+    public long getCreatedMillis() {
+        return createdDate;
+    }
+    
+    public long getUpdatedMillis() {
+        return updatedDate;
+    }
+    
+    public String getFormattedCreatedDate() {
+        return Timestamps.format(createdDate, Timestamps.DISPLAY);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Bug #%d: %s [%s] - %s", id, title, priority, status);
+    }
+}
@@ -1,8 +1,5 @@
 package model;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
 /**
  * Model class for time tracking
  */
@@ -13,7 +10,7 @@ public class TimeLog {
     private String username;
     private double hoursSpent;
     private String description;
-    private String logDate;
+    private long logDate;   // epoch millis
     
     public TimeLog(int bugId, int userId, String username, double hoursSpent, String description) {
         this.bugId = bugId;
@@ -21,7 +18,7 @@ public class TimeLog {
         this.username = username;
         this.hoursSpent = hoursSpent;
         this.description = description;
-        this.logDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.logDate = Timestamps.now();
     }
     
     // Getters and setters
@@ -43,6 +40,10 @@ public class TimeLog {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public String getLogDate() { return logDate; }
-    public void setLogDate(String logDate) { this.logDate = logDate; }
+    public long getLogDate() { return logDate; }
+    public void setLogDate(long logDate) { this.logDate = logDate; }
+    
+    public String getFormattedLogDate() {
+        return Timestamps.format(logDate, Timestamps.FULL);
+    }
 }
@@ -0,0 +1,34 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Helpers for timestamps stored as epoch milliseconds
+ */
+public final class Timestamps {
+    public static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    public static final DateTimeFormatter FULL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private Timestamps() {
+    }
+    
+    // Current time as epoch milliseconds
+    public static long now() {
+        return System.currentTimeMillis();
+    }
+    
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    public static String format(long epochMillis, DateTimeFormatter formatter) {
+        return toLocalDateTime(epochMillis).format(formatter);
+    }
+}
@@ -0,0 +1,309 @@
+package service;
+
+import model.ActivityLog;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of old activity log entries.
+ * Each archival run writes one gzip segment (activity-NNNNNN.seg.gz) plus a small
+ * uncompressed index (.idx) with the id and time range and the sorted bug ids it
+ * contains, so queries only decompress segments that can match.
+ * Segments are never modified after they are written, and append() returns only once
+ * both files and their directory entries are on disk, so callers may then delete the
+ * source rows.
+ */
+public class ActivityArchive {
+    private static final int SEGMENT_MAGIC = 0x41435453;   // "ACTS"
+    private static final int INDEX_MAGIC = 0x41435449;     // "ACTI"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SEGMENT_SUFFIX = ".seg.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private List<Segment> segments;
+
+    // Index of one segment file
+    public static class Segment {
+        public final int sequence;
+        public final int count;
+        public final int minId;
+        public final int maxId;
+        public final long minTimestamp;
+        public final long maxTimestamp;
+        public final long cutoff;          // every entry is older than this
+        private final int[] bugIds;        // sorted, distinct
+
+        Segment(int sequence, int count, int minId, int maxId, long minTimestamp,
+                long maxTimestamp, long cutoff, int[] bugIds) {
+            this.sequence = sequence;
+            this.count = count;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.cutoff = cutoff;
+            this.bugIds = bugIds;
+        }
+
+        // False when the index proves the segment has no entry in the range for the bug (bugId <= 0 = any)
+        public boolean mightContain(long fromMillis, long toMillis, int bugId) {
+            if (maxTimestamp < fromMillis || minTimestamp > toMillis) {
+                return false;
+            }
+            return bugId <= 0 || Arrays.binarySearch(bugIds, bugId) >= 0;
+        }
+    }
+
+    public ActivityArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    // Write the entries as a new segment; entries must all be older than cutoff
+    public synchronized Segment append(List<ActivityLog> entries, long cutoff) throws IOException {
+        Files.createDirectories(directory);
+        List<Segment> existing = getSegments();
+        int sequence = existing.isEmpty() ? 1 : existing.get(existing.size() - 1).sequence + 1;
+
+        int minId = Integer.MAX_VALUE;
+        int maxId = Integer.MIN_VALUE;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        TreeSet<Integer> bugIds = new TreeSet<>();
+
+        // Write to temporary files, force them and rename, so a crash never leaves a half-written segment
+        Path segmentTmp = directory.resolve(fileName(sequence, SEGMENT_SUFFIX) + ".tmp");
+        try (FileChannel channel = openForWrite(segmentTmp);
+             GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            for (ActivityLog entry : entries) {
+                out.writeBoolean(true);
+                writeEntry(out, entry);
+                minId = Math.min(minId, entry.getId());
+                maxId = Math.max(maxId, entry.getId());
+                minTimestamp = Math.min(minTimestamp, entry.getTimestamp());
+                maxTimestamp = Math.max(maxTimestamp, entry.getTimestamp());
+                if (entry.getBugId() > 0) {
+                    bugIds.add(entry.getBugId());
+                }
+            }
+            out.writeBoolean(false);
+            out.flush();
+            gzip.finish();
+            channel.force(true);
+        }
+
+        Segment segment = new Segment(sequence, entries.size(), minId, maxId, minTimestamp, maxTimestamp,
+            cutoff, bugIds.stream().mapToInt(Integer::intValue).toArray());
+
+        Path indexTmp = directory.resolve(fileName(sequence, INDEX_SUFFIX) + ".tmp");
+        try (FileChannel channel = openForWrite(indexTmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            writeIndex(out, segment);
+            out.flush();
+            channel.force(true);
+        }
+
+        // Segment first: an index without its segment would point at nothing
+        Files.move(segmentTmp, directory.resolve(fileName(sequence, SEGMENT_SUFFIX)), StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTmp, directory.resolve(fileName(sequence, INDEX_SUFFIX)), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+
+        segments.add(segment);
+        return segment;
+    }
+
+    // All segment indexes, oldest first (loaded from disk on first use)
+    public synchronized List<Segment> getSegments() throws IOException {
+        if (segments == null) {
+            List<Segment> loaded = new ArrayList<>();
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "activity-*" + INDEX_SUFFIX)) {
+                    for (Path file : files) {
+                        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                            loaded.add(readIndex(in));
+                        }
+                    }
+                }
+            }
+            loaded.sort(Comparator.comparingInt(s -> s.sequence));
+            segments = loaded;
+        }
+        return segments;
+    }
+
+    // Archived entries in [fromMillis, toMillis], optionally for one bug (bugId <= 0 = any), newest first.
+    // Memory is bounded by limit: matches go through a min-heap of the limit newest seen so far,
+    // and segments are read newest first, skipping any that cannot beat the oldest kept entry.
+    public List<ActivityLog> query(long fromMillis, long toMillis, int bugId, int limit) throws IOException {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        Comparator<ActivityLog> newestFirst = Comparator.comparingLong(ActivityLog::getTimestamp)
+            .thenComparingInt(ActivityLog::getId).reversed();
+        PriorityQueue<ActivityLog> kept = new PriorityQueue<>(Math.min(limit, 1024), newestFirst.reversed());
+
+        List<Segment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(getSegments());
+        }
+        snapshot.sort(Comparator.comparingLong((Segment s) -> s.maxTimestamp).reversed());
+        for (Segment segment : snapshot) {
+            if (!segment.mightContain(fromMillis, toMillis, bugId)) {
+                continue;
+            }
+            if (kept.size() == limit && segment.maxTimestamp < kept.peek().getTimestamp()) {
+                break;   // segments are in descending maxTimestamp order, so none of the rest can either
+            }
+            Path file = directory.resolve(fileName(segment.sequence, SEGMENT_SUFFIX));
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(file), 64 * 1024)))) {
+                checkHeader(in, SEGMENT_MAGIC, file);
+                while (in.readBoolean()) {
+                    ActivityLog entry = readEntry(in);
+                    if (entry.getTimestamp() < fromMillis || entry.getTimestamp() > toMillis
+                            || (bugId > 0 && entry.getBugId() != bugId)) {
+                        continue;
+                    }
+                    if (kept.size() < limit) {
+                        kept.add(entry);
+                    } else if (newestFirst.compare(entry, kept.peek()) < 0) {
+                        kept.poll();
+                        kept.add(entry);
+                    }
+                }
+            } catch (EOFException e) {
+                throw new IOException("Truncated archive segment " + file, e);
+            }
+        }
+
+        List<ActivityLog> results = new ArrayList<>(kept);
+        results.sort(newestFirst);
+        return results;
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+
+    // Make the renames durable. Some platforms (Windows) cannot open a directory; there the
+    // renames are as durable as the file system makes them.
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported here
+        }
+    }
+
+    private static String fileName(int sequence, String suffix) {
+        return String.format("activity-%06d%s", sequence, suffix);
+    }
+
+    private static void writeEntry(DataOutputStream out, ActivityLog entry) throws IOException {
+        out.writeInt(entry.getId());
+        out.writeInt(entry.getUserId());
+        writeString(out, entry.getUsername());
+        writeString(out, entry.getAction());
+        writeString(out, entry.getDetails());
+        out.writeInt(entry.getBugId());
+        out.writeLong(entry.getTimestamp());
+    }
+
+    private static ActivityLog readEntry(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int userId = in.readInt();
+        String username = readString(in);
+        String action = readString(in);
+        String details = readString(in);
+        int bugId = in.readInt();
+        long timestamp = in.readLong();
+
+        ActivityLog entry = new ActivityLog(userId, username, action, details, bugId);
+        entry.setId(id);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+
+    // Length-prefixed UTF-8 (writeUTF is limited to 64 KB and details can be longer)
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeIndex(DataOutputStream out, Segment segment) throws IOException {
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(segment.sequence);
+        out.writeInt(segment.count);
+        out.writeInt(segment.minId);
+        out.writeInt(segment.maxId);
+        out.writeLong(segment.minTimestamp);
+        out.writeLong(segment.maxTimestamp);
+        out.writeLong(segment.cutoff);
+        out.writeInt(segment.bugIds.length);
+        for (int bugId : segment.bugIds) {
+            out.writeInt(bugId);
+        }
+    }
+
+    private static Segment readIndex(DataInputStream in) throws IOException {
+        checkHeader(in, INDEX_MAGIC, null);
+        int sequence = in.readInt();
+        int count = in.readInt();
+        int minId = in.readInt();
+        int maxId = in.readInt();
+        long minTimestamp = in.readLong();
+        long maxTimestamp = in.readLong();
+        long cutoff = in.readLong();
+        int[] bugIds = new int[in.readInt()];
+        for (int i = 0; i < bugIds.length; i++) {
+            bugIds[i] = in.readInt();
+        }
+        return new Segment(sequence, count, minId, maxId, minTimestamp, maxTimestamp, cutoff, bugIds);
+    }
+
+    private static void checkHeader(DataInputStream in, int magic, Path file) throws IOException {
+        if (in.readInt() != magic || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unrecognized archive file" + (file != null ? " " + file : ""));
+        }
+    }
+}
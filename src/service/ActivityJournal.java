@@ -0,0 +1,302 @@
+package service;
+
+import model.ActivityLog;
+import model.Timestamps;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only activity journal in a memory-mapped, pre-allocated file.
+ * Logging an entry is a few buffer writes with no database lock or commit;
+ * a background task forces the mapped pages to disk every few hundred milliseconds.
+ *
+ * File layout: a 32-byte header (magic, version, checkpoint position, checkpoint id)
+ * followed by records of [int length][payload][int crc32][int length]. The trailing
+ * length lets readers walk the journal backwards from the newest record.
+ *
+ * Write-back of mapped pages is unordered, so after a crash any page written since the
+ * last sync may or may not be on disk. The header therefore only records a checkpoint,
+ * written once the record pages before it have been forced; on open, records after the
+ * checkpoint are kept only while their length, checksum and id sequence hold up.
+ */
+public class ActivityJournal {
+    private static final int MAGIC = 0x41434a4c;   // "ACJL"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int POSITION_OFFSET = 8;
+    private static final int LAST_ID_OFFSET = 16;
+    private static final int MIN_PAYLOAD = 4 + 4 + 4 + 8 + 12;   // fixed fields and three empty strings
+    private static final int SCAN_CHUNK = 1024;                   // records decoded per lock hold in forEach
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int lastId;
+    private long lastTimestamp;   // of the newest record; timestamps never go below it
+    private boolean dirty;
+    private final ScheduledExecutorService syncScheduler;
+
+    // Open (or create) the journal, pre-allocating initialSize bytes
+    public ActivityJournal(Path path, int initialSize, long syncIntervalMillis) throws IOException {
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        this.channel = file.getChannel();
+
+        boolean created = channel.size() == 0;
+        int size = (int) Math.max(channel.size(), Math.max(initialSize, HEADER_SIZE * 2));
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (created) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(POSITION_OFFSET, HEADER_SIZE);
+            buffer.putInt(LAST_ID_OFFSET, 0);
+            buffer.force();
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            close();
+            throw new IOException("Not an activity journal: " + path);
+        }
+        this.position = (int) buffer.getLong(POSITION_OFFSET);
+        this.lastId = buffer.getInt(LAST_ID_OFFSET);
+        recover();
+        if (position > HEADER_SIZE) {
+            int start = position - 12 - buffer.getInt(position - 4);
+            this.lastTimestamp = buffer.getLong(start + 16);
+        }
+
+        this.syncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "activity-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncScheduler.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Append an entry; assigns and returns its id. The timestamp is also (re)assigned here,
+    // under the monitor and never below the previous record's, even if the wall clock steps
+    // back, so record order is timestamp order and readRange() can stop at its lower bound.
+    public synchronized int append(ActivityLog activity) throws IOException {
+        byte[] username = bytes(activity.getUsername());
+        byte[] action = bytes(activity.getAction());
+        byte[] details = bytes(activity.getDetails());
+        int length = MIN_PAYLOAD + username.length + action.length + details.length;
+
+        ensureCapacity(length + 12);
+        int id = lastId + 1;
+        long timestamp = Math.max(Timestamps.now(), lastTimestamp);
+
+        buffer.position(position);
+        buffer.putInt(length);
+        buffer.putInt(id);
+        buffer.putInt(activity.getUserId());
+        buffer.putInt(activity.getBugId());
+        buffer.putLong(timestamp);
+        putBytes(username);
+        putBytes(action);
+        putBytes(details);
+        buffer.putInt(checksum(position + 4, length));
+        buffer.putInt(length);
+
+        position = buffer.position();
+        lastId = id;
+        lastTimestamp = timestamp;
+        dirty = true;
+
+        activity.setId(id);
+        activity.setTimestamp(timestamp);
+        return id;
+    }
+
+    // Newest entries first, up to limit, keeping those the filter accepts (null = all)
+    public List<ActivityLog> readRecent(int limit, Predicate<ActivityLog> filter) {
+        return readRange(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, limit, filter);
+    }
+
+    // Newest entries first among those at or after fromMillis and strictly before the
+    // (timestamp, id) position, up to limit, keeping those the filter accepts (null = all).
+    // Newer entries are skipped and the walk stops at the first older one using only the
+    // fixed id and timestamp fields, so records outside the range are never decoded.
+    // append() keeps record order and timestamp order the same.
+    public synchronized List<ActivityLog> readRange(long fromMillis, long beforeTimestamp, int beforeId,
+                                                    int limit, Predicate<ActivityLog> filter) {
+        List<ActivityLog> activities = new ArrayList<>();
+        int end = position;
+        while (end > HEADER_SIZE && activities.size() < limit) {
+            int start = end - 12 - buffer.getInt(end - 4);
+            int id = buffer.getInt(start + 4);
+            long timestamp = buffer.getLong(start + 16);
+            if (timestamp < fromMillis) {
+                break;
+            }
+            if (timestamp < beforeTimestamp || (timestamp == beforeTimestamp && id < beforeId)) {
+                ActivityLog activity = readRecord(start + 4);
+                if (filter == null || filter.test(activity)) {
+                    activities.add(activity);
+                }
+            }
+            end = start;
+        }
+        return activities;
+    }
+
+    // Every entry present at the call, oldest first. The monitor is only held while a
+    // chunk of records is decoded, and the action runs outside it, so a full pass does
+    // not hold up append() for its whole length.
+    public void forEach(Consumer<ActivityLog> action) {
+        int end;
+        synchronized (this) {
+            end = position;
+        }
+        int start = HEADER_SIZE;
+        List<ActivityLog> chunk = new ArrayList<>(SCAN_CHUNK);
+        while (start < end) {
+            chunk.clear();
+            synchronized (this) {
+                // Records before end never change; the mapping itself may have been replaced
+                while (start < end && chunk.size() < SCAN_CHUNK) {
+                    chunk.add(readRecord(start + 4));
+                    start += 12 + buffer.getInt(start);
+                }
+            }
+            chunk.forEach(action);
+        }
+    }
+
+    public synchronized int getLastId() {
+        return lastId;
+    }
+
+    public synchronized long getSizeBytes() {
+        return position;
+    }
+
+    // Flush written pages to disk if anything changed since the last sync, then checkpoint
+    public synchronized void sync() {
+        if (dirty) {
+            checkpoint();
+        }
+    }
+
+    public void close() throws IOException {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+        }
+        synchronized (this) {
+            if (buffer != null && dirty) {
+                checkpoint();
+            }
+            channel.close();
+            file.close();
+        }
+    }
+
+    // Records are forced before the header that points past them, so the checkpoint is
+    // always durable; only records appended after it can be torn
+    private void checkpoint() {
+        buffer.force();
+        buffer.putLong(POSITION_OFFSET, position);
+        buffer.putInt(LAST_ID_OFFSET, lastId);
+        buffer.force();
+        dirty = false;
+    }
+
+    // Keep the records after the checkpoint that reached the disk intact and in sequence;
+    // clear whatever follows the first bad one so it cannot be mistaken for data later
+    private void recover() {
+        int recovered = position;
+        while (true) {
+            int start = position;
+            if (start + 12 + MIN_PAYLOAD > buffer.capacity()) {
+                break;
+            }
+            int length = buffer.getInt(start);
+            int end = start + 12 + length;
+            if (length < MIN_PAYLOAD || end < start || end > buffer.capacity()
+                    || buffer.getInt(end - 4) != length
+                    || buffer.getInt(start + 4) != lastId + 1
+                    || buffer.getInt(end - 8) != checksum(start + 4, length)) {
+                break;
+            }
+            position = end;
+            lastId++;
+        }
+        if (position != recovered) {
+            dirty = true;
+        }
+        if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+            byte[] zeros = new byte[64 * 1024];
+            for (int offset = position; offset < buffer.capacity(); offset += zeros.length) {
+                buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+            }
+            dirty = true;
+        }
+    }
+
+    private int checksum(int offset, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(offset).limit(offset + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private ActivityLog readRecord(int offset) {
+        int id = buffer.getInt(offset);
+        int userId = buffer.getInt(offset + 4);
+        int bugId = buffer.getInt(offset + 8);
+        long timestamp = buffer.getLong(offset + 12);
+        int cursor = offset + 20;
+
+        String[] strings = new String[3];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt(cursor);
+            byte[] value = new byte[length];
+            buffer.get(cursor + 4, value);
+            strings[i] = new String(value, StandardCharsets.UTF_8);
+            cursor += 4 + length;
+        }
+
+        ActivityLog activity = new ActivityLog(userId, strings[0], strings[1], strings[2], bugId);
+        activity.setId(id);
+        activity.setTimestamp(timestamp);
+        return activity;
+    }
+
+    // Double the mapping until the next record fits
+    private void ensureCapacity(int needed) throws IOException {
+        if (position + needed <= buffer.capacity()) {
+            return;
+        }
+        long size = buffer.capacity();
+        while (position + needed > size) {
+            size *= 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Activity journal is full");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void putBytes(byte[] value) {
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
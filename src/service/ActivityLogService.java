@@ -1,57 +1,216 @@
 package service;
 
 import model.ActivityLog;
+import model.Timestamps;
 import database.DatabaseManager;
 
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing activity logs
  */
 public class ActivityLogService {
+    private static final String INSERT_SQL =
+        "INSERT INTO activity_logs (user_id, username, action, details, bug_id, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    // Async mode (default on): entries are queued and group-committed by a background writer.
+    // Tunables, overridable with -Dbugtracker.activity.<name>=<value>
+    private static final boolean ASYNC = Boolean.parseBoolean(System.getProperty("bugtracker.activity.async", "true"));
+    private static final int QUEUE_CAPACITY = Integer.getInteger("bugtracker.activity.queueCapacity", 10_000);
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("bugtracker.activity.maxBatch", 500);
+    private static final String OVERFLOW_POLICY = System.getProperty("bugtracker.activity.overflow", "BLOCK");
+    private static final long FLUSH_TIMEOUT_MS = 5_000L;
+    // Reads on the event thread wait only this long for queued entries: the writer can be held
+    // up behind an archive run or a bulk import, and a view missing an entry beats a frozen UI
+    private static final long EDT_FLUSH_TIMEOUT_MS = Long.getLong("bugtracker.activity.edtFlushTimeoutMs", 100);
+    
+    // Retention (opt-in): with -Dbugtracker.activity.retentionDays=N, entries older than N days
+    // move to compressed archive segments; the default 0 keeps every entry in the table
+    private static final int RETENTION_DAYS = Integer.getInteger("bugtracker.activity.retentionDays", 0);
+    private static final int ARCHIVE_CHUNK = Integer.getInteger("bugtracker.activity.archiveChunk", 50_000);
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final ActivityArchive archive = new ActivityArchive(
+        Paths.get(System.getProperty("bugtracker.activity.archiveDir", "activity-archive")));
+    
+    // Journal sink (-Dbugtracker.activity.sink=journal): entries go to a memory-mapped
+    // ActivityJournal instead of SQLite, and reads scan it backwards from the tail
+    private static final boolean USE_JOURNAL = "journal".equalsIgnoreCase(System.getProperty("bugtracker.activity.sink", "database"));
+    private static final String JOURNAL_FILE = System.getProperty("bugtracker.activity.journalFile", "activity.journal");
+    private static final int JOURNAL_INITIAL_MB = Integer.getInteger("bugtracker.activity.journalInitialMb", 64);
+    private static final long JOURNAL_SYNC_MS = Long.getLong("bugtracker.activity.journalSyncMs", 500L);
+    
+    // Volatile so the per-log lookups below need no lock once these are set;
+    // the class lock is only taken to create them and in shutdown()
+    private static volatile ActivityLogWriter writer;
+    private static ScheduledExecutorService retentionScheduler;
+    private static volatile ActivityJournal journal;
+    private static volatile boolean journalFailed;
+    private static volatile boolean journalClosed;   // set by shutdown(); the journal is not reopened
+    
+    // Serializes archive runs; deliberately not the class lock, which logging needs
+    private static final Object archiveLock = new Object();
+    
+    // The shared background writer, started on first use; null in synchronous mode
+    public static ActivityLogWriter getWriter() {
+        ActivityLogWriter current = writer;
+        if (current != null || !ASYNC) {
+            return current;
+        }
+        synchronized (ActivityLogService.class) {
+            if (writer == null) {
+                writer = new ActivityLogWriter(QUEUE_CAPACITY, MAX_BATCH_SIZE,
+                    ActivityLogWriter.OverflowPolicy.valueOf(OVERFLOW_POLICY.toUpperCase()),
+                    ActivityLogService::insertBatch);
+            }
+            return writer;
+        }
+    }
+    
+    // The shared journal, opened on first use; null when the database sink is in use
+    // (or the journal could not be opened, in which case logging falls back to the database)
+    public static ActivityJournal getJournal() {
+        ActivityJournal current = journal;
+        if (current != null || !USE_JOURNAL || journalFailed || journalClosed) {
+            return current;
+        }
+        synchronized (ActivityLogService.class) {
+            if (journal == null && !journalFailed && !journalClosed) {
+                try {
+                    journal = new ActivityJournal(Paths.get(JOURNAL_FILE), JOURNAL_INITIAL_MB * 1024 * 1024, JOURNAL_SYNC_MS);
+                } catch (IOException e) {
+                    journalFailed = true;
+                    System.err.println("Error opening activity journal, using the database: " + e.getMessage());
+                }
+            }
+            return journal;
+        }
+    }
+    
+    // Archive old entries now and then once a day in the background; does nothing unless
+    // a retention age is configured
+    public static synchronized void startRetention() {
+        if (RETENTION_DAYS <= 0 || retentionScheduler != null || USE_JOURNAL) {
+            return;
+        }
+        retentionScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "activity-retention");
+            t.setDaemon(true);
+            return t;
+        });
+        retentionScheduler.scheduleWithFixedDelay(() -> {
+            int archived = archiveOlderThan(Timestamps.now() - RETENTION_DAYS * DAY_MILLIS);
+            if (archived > 0) {
+                System.out.println("Archived " + archived + " activity log entries");
+            }
+        }, 1, 24 * 60, TimeUnit.MINUTES);
+    }
+    
+    // Write out queued entries and stop the writer (called at application shutdown)
+    public static synchronized void shutdown() {
+        if (retentionScheduler != null) {
+            retentionScheduler.shutdownNow();
+            retentionScheduler = null;
+        }
+        if (writer != null) {
+            writer.shutdown(FLUSH_TIMEOUT_MS);
+            if (writer.getDroppedCount() > 0 || writer.getFailedCount() > 0) {
+                System.err.println("Activity log entries lost: " + writer);
+            }
+        }
+        journalClosed = true;
+        ActivityJournal closing = journal;
+        journal = null;
+        if (closing != null) {
+            try {
+                closing.close();
+            } catch (IOException e) {
+                System.err.println("Error closing activity journal: " + e.getMessage());
+            }
+        }
+    }
     
     public void logActivity(ActivityLog activity) {
-        String sql = "INSERT INTO activity_logs (user_id, username, action, details, bug_id, timestamp) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
+        ActivityJournal activityJournal = getJournal();
+        if (activityJournal == null && USE_JOURNAL && journalClosed) {
+            System.err.println("Activity journal closed, entry not written: " + activity.getAction());
+            return;
+        }
+        if (activityJournal != null) {
+            try {
+                activityJournal.append(activity);
+                return;
+            } catch (IOException e) {
+                System.err.println("Error writing activity journal: " + e.getMessage());
+            }
+        }
         
+        ActivityLogWriter asyncWriter = getWriter();
+        if (asyncWriter != null) {
+            asyncWriter.submit(activity);
+        } else {
+            insertBatch(List.of(activity));
+        }
+    }
+    
+    // Make queued entries visible before reading, so a view refreshed right after an action shows it.
+    // Only the views of recent activity need this; time-range queries and rankings skip it.
+    private static void flushPending() {
+        ActivityLogWriter asyncWriter = writer;
+        if (asyncWriter != null) {
+            asyncWriter.flush(EventQueue.isDispatchThread() ? EDT_FLUSH_TIMEOUT_MS : FLUSH_TIMEOUT_MS);
+        }
+    }
+    
+    // Insert the entries in one transaction
+    static boolean insertBatch(List<ActivityLog> activities) {
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, activity.getUserId());
-            pstmt.setString(2, activity.getUsername());
-            pstmt.setString(3, activity.getAction());
-            pstmt.setString(4, activity.getDetails());
-            pstmt.setInt(5, activity.getBugId());
-            pstmt.setString(6, activity.getTimestamp());
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
             
-            pstmt.executeUpdate();
+            conn.setAutoCommit(false);
+            for (ActivityLog activity : activities) {
+                pstmt.setInt(1, activity.getUserId());
+                pstmt.setString(2, activity.getUsername());
+                pstmt.setString(3, activity.getAction());
+                pstmt.setString(4, activity.getDetails());
+                pstmt.setInt(5, activity.getBugId());
+                pstmt.setLong(6, activity.getTimestamp());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            return true;
             
         } catch (SQLException e) {
             System.err.println("Error logging activity: " + e.getMessage());
+            return false;
         }
     }
     
     public List<ActivityLog> getAllActivities() {
+        if (getJournal() != null) {
+            return getJournal().readRecent(100, null);
+        }
+        flushPending();
         List<ActivityLog> activities = new ArrayList<>();
         String sql = "SELECT * FROM activity_logs ORDER BY timestamp DESC LIMIT 100";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                ActivityLog activity = new ActivityLog(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("action"),
-                    rs.getString("details"),
-                    rs.getInt("bug_id")
-                );
-                activity.setId(rs.getInt("id"));
-                activity.setTimestamp(rs.getString("timestamp"));
-                activities.add(activity);
+                activities.add(readActivity(rs));
             }
             
         } catch (SQLException e) {
@@ -62,26 +221,21 @@ public class ActivityLogService {
     }
     
     public List<ActivityLog> getActivitiesByBug(int bugId) {
+        if (getJournal() != null) {
+            return getJournal().readRecent(Integer.MAX_VALUE, a -> a.getBugId() == bugId);
+        }
+        flushPending();
         List<ActivityLog> activities = new ArrayList<>();
         String sql = "SELECT * FROM activity_logs WHERE bug_id = ? ORDER BY timestamp DESC";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, bugId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                ActivityLog activity = new ActivityLog(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("action"),
-                    rs.getString("details"),
-                    rs.getInt("bug_id")
-                );
-                activity.setId(rs.getInt("id"));
-                activity.setTimestamp(rs.getString("timestamp"));
-                activities.add(activity);
+                activities.add(readActivity(rs));
             }
             
         } catch (SQLException e) {
@@ -92,26 +246,21 @@ public class ActivityLogService {
     }
     
     public List<ActivityLog> getActivitiesByUser(int userId) {
+        if (getJournal() != null) {
+            return getJournal().readRecent(50, a -> a.getUserId() == userId);
+        }
+        flushPending();
         List<ActivityLog> activities = new ArrayList<>();
         String sql = "SELECT * FROM activity_logs WHERE user_id = ? ORDER BY timestamp DESC LIMIT 50";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                ActivityLog activity = new ActivityLog(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("action"),
-                    rs.getString("details"),
-                    rs.getInt("bug_id")
-                );
-                activity.setId(rs.getInt("id"));
-                activity.setTimestamp(rs.getString("timestamp"));
-                activities.add(activity);
+                activities.add(readActivity(rs));
             }
             
         } catch (SQLException e) {
@@ -120,4 +269,268 @@ public class ActivityLogService {
         
         return activities;
     }
+    
+    // One page of the filtered feed, newest first; continue with query.before(page.nextTimestamp, page.nextId)
+    public ActivityPage getActivityPage(ActivityQuery query, int pageSize) {
+        List<ActivityLog> activities;
+        ActivityJournal activityJournal = getJournal();
+        if (activityJournal != null) {
+            // Walk only from the keyset position (or the "to" bound) down to the "from" bound
+            long from = query.getFrom() != null ? query.getFrom() : Long.MIN_VALUE;
+            long beforeTimestamp = Long.MAX_VALUE;
+            int beforeId = Integer.MAX_VALUE;
+            if (query.getBeforeTimestamp() != null) {
+                beforeTimestamp = query.getBeforeTimestamp();
+                beforeId = query.getBeforeId();
+            } else if (query.getTo() != null) {
+                beforeTimestamp = query.getTo();
+            }
+            activities = activityJournal.readRange(from, beforeTimestamp, beforeId, pageSize + 1, query::matches);
+        } else {
+            flushPending();
+            activities = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            String sql = query.toSql(params, pageSize + 1);
+            
+            try (Connection conn = DatabaseManager.getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    activities.add(readActivity(rs));
+                }
+                
+            } catch (SQLException e) {
+                System.err.println("Error fetching activity page: " + e.getMessage());
+            }
+        }
+        
+        // One extra row was requested to know whether another page exists
+        boolean hasMore = activities.size() > pageSize;
+        if (hasMore) {
+            activities = activities.subList(0, pageSize);
+        }
+        ActivityLog last = activities.isEmpty() ? null : activities.get(activities.size() - 1);
+        return new ActivityPage(activities, hasMore,
+            last != null ? last.getTimestamp() : 0, last != null ? last.getId() : 0);
+    }
+    
+    // Inner class for one page of the activity feed
+    public static class ActivityPage {
+        public final List<ActivityLog> activities;
+        public final boolean hasMore;
+        public final long nextTimestamp;
+        public final int nextId;
+        
+        public ActivityPage(List<ActivityLog> activities, boolean hasMore, long nextTimestamp, int nextId) {
+            this.activities = activities;
+            this.hasMore = hasMore;
+            this.nextTimestamp = nextTimestamp;
+            this.nextId = nextId;
+        }
+    }
+    
+    // Activity for a bug, including entries moved to the archive
+    public List<ActivityLog> getActivitiesByBug(int bugId, boolean includeArchived) {
+        List<ActivityLog> activities = getActivitiesByBug(bugId);
+        if (includeArchived) {
+            activities.addAll(queryArchive(Long.MIN_VALUE, Long.MAX_VALUE, bugId, Integer.MAX_VALUE));
+        }
+        return activities;
+    }
+    
+    // Activity in [fromMillis, toMillis], newest first, optionally reaching into the archive
+    public List<ActivityLog> getActivitiesBetween(long fromMillis, long toMillis, int limit, boolean includeArchived) {
+        ActivityJournal activityJournal = getJournal();
+        if (activityJournal != null) {
+            return activityJournal.readRange(fromMillis, toMillis, Integer.MAX_VALUE, limit, null);
+        }
+        List<ActivityLog> activities = new ArrayList<>();
+        String sql = "SELECT * FROM activity_logs WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp DESC, id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, fromMillis);
+            pstmt.setLong(2, toMillis);
+            pstmt.setInt(3, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                activities.add(readActivity(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching activities: " + e.getMessage());
+        }
+        
+        // Archived entries are all older than the hot ones, so they only fill what is left
+        if (includeArchived && activities.size() < limit) {
+            activities.addAll(queryArchive(fromMillis, toMillis, 0, limit - activities.size()));
+        }
+        return activities;
+    }
+    
+    // Entry counts per action for archived days, from the rollup kept at archival time
+    public Map<String, Long> getArchivedActionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        String sql = "SELECT action, SUM(count) FROM activity_rollups GROUP BY action ORDER BY SUM(count) DESC";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching activity rollups: " + e.getMessage());
+        }
+        
+        return counts;
+    }
+    
+    // The k users with the most logged activity, by username. In the database this is a
+    // GROUP BY over idx_activity_user_ts with LIMIT k; the journal has no index, so its
+    // records are counted per user in one pass (memory O(users), not O(k)) and ranked
+    // with a k-entry heap. Archived entries are not included (their rollups are per
+    // action, not per user). Scans the journal, so call it off the event thread.
+    public List<TopK.Ranked<String>> getMostActiveUsers(int k) {
+        TopK<String> top = new TopK<>(k);
+        
+        ActivityJournal activityJournal = getJournal();
+        if (activityJournal != null) {
+            Map<Integer, long[]> counts = new HashMap<>();
+            Map<Integer, String> names = new HashMap<>();
+            activityJournal.forEach(activity -> {
+                counts.computeIfAbsent(activity.getUserId(), id -> new long[1])[0]++;
+                names.put(activity.getUserId(), activity.getUsername());
+            });
+            for (Map.Entry<Integer, long[]> entry : counts.entrySet()) {
+                top.offer(names.get(entry.getKey()), entry.getValue()[0]);
+            }
+            return top.result();
+        }
+        
+        String sql = "SELECT user_id, MAX(username), COUNT(*) AS n FROM activity_logs "
+            + "GROUP BY user_id ORDER BY n DESC, user_id LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, k);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                top.offer(rs.getString(2), rs.getLong(3));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error ranking active users: " + e.getMessage());
+        }
+        
+        return top.result();
+    }
+    
+    private static List<ActivityLog> queryArchive(long fromMillis, long toMillis, int bugId, int limit) {
+        try {
+            return archive.query(fromMillis, toMillis, bugId, limit);
+        } catch (IOException e) {
+            System.err.println("Error reading activity archive: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    // Move entries older than cutoff into archive segments, rolling them up per day and action.
+    // Each chunk is written to disk before its rows are deleted; returns the number archived.
+    // Runs under its own lock, so logging and shutdown are never held up by an archive run.
+    public static int archiveOlderThan(long cutoffMillis) {
+        synchronized (archiveLock) {
+            return archiveChunks(cutoffMillis);
+        }
+    }
+    
+    private static int archiveChunks(long cutoffMillis) {
+        int archived = 0;
+        try {
+            // A crash between writing a segment and deleting its rows leaves them in the table;
+            // finishing the newest segment again first keeps them from being archived twice
+            List<ActivityArchive.Segment> segments = archive.getSegments();
+            if (!segments.isEmpty()) {
+                finishSegment(segments.get(segments.size() - 1));
+            }
+            
+            while (true) {
+                List<ActivityLog> chunk = selectOlderThan(cutoffMillis, ARCHIVE_CHUNK);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                ActivityArchive.Segment segment = archive.append(chunk, cutoffMillis);
+                finishSegment(segment);
+                archived += chunk.size();
+                if (chunk.size() < ARCHIVE_CHUNK) {
+                    break;
+                }
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Error archiving activity logs: " + e.getMessage());
+        }
+        return archived;
+    }
+    
+    private static List<ActivityLog> selectOlderThan(long cutoffMillis, int limit) throws SQLException {
+        List<ActivityLog> activities = new ArrayList<>();
+        String sql = "SELECT * FROM activity_logs WHERE timestamp < ? ORDER BY id LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, cutoffMillis);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                activities.add(readActivity(rs));
+            }
+        }
+        return activities;
+    }
+    
+    // Roll up and delete the rows a segment holds, in one transaction (idempotent)
+    private static void finishSegment(ActivityArchive.Segment segment) throws SQLException {
+        String where = " WHERE id BETWEEN ? AND ? AND timestamp < ?";
+        String rollupSql = "INSERT INTO activity_rollups (day, action, count) "
+            + "SELECT timestamp / " + DAY_MILLIS + ", action, COUNT(*) FROM activity_logs" + where
+            + " GROUP BY timestamp / " + DAY_MILLIS + ", action"
+            + " ON CONFLICT (day, action) DO UPDATE SET count = count + excluded.count";
+        String deleteSql = "DELETE FROM activity_logs" + where;
+        
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            for (String sql : new String[] { rollupSql, deleteSql }) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, segment.minId);
+                    pstmt.setInt(2, segment.maxId);
+                    pstmt.setLong(3, segment.cutoff);
+                    pstmt.executeUpdate();
+                }
+            }
+            conn.commit();
+        }
+    }
+    
+    private static ActivityLog readActivity(ResultSet rs) throws SQLException {
+        ActivityLog activity = new ActivityLog(
+            rs.getInt("user_id"),
+            rs.getString("username"),
+            rs.getString("action"),
+            rs.getString("details"),
+            rs.getInt("bug_id")
+        );
+        activity.setId(rs.getInt("id"));
+        activity.setTimestamp(rs.getLong("timestamp"));
+        return activity;
+    }
 }
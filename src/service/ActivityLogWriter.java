@@ -0,0 +1,212 @@
+package service;
+
+import model.ActivityLog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for activity logs.
+ * Callers enqueue entries and return immediately; one thread drains the queue and
+ * inserts everything that accumulated in a single transaction (group commit), so a
+ * burst of N log calls costs one commit instead of N.
+ */
+public class ActivityLogWriter {
+
+    // What submit() does when the queue is full
+    public enum OverflowPolicy {
+        BLOCK,          // wait for space
+        DROP_NEWEST,    // discard the entry being submitted
+        DROP_OLDEST,    // discard the oldest queued entry to make room
+        CALLER_RUNS     // write the entry synchronously on the caller's thread
+    }
+
+    // Writes one batch in a single transaction; returns false if it failed
+    public interface BatchWriter {
+        boolean write(List<ActivityLog> batch);
+    }
+
+    private final BlockingQueue<ActivityLog> queue;
+    private final int maxBatchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final BatchWriter batchWriter;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Entries accepted so far and entries finished (written, failed or dropped); flush() waits for them to meet
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    // Metrics
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    public ActivityLogWriter(int capacity, int maxBatchSize, OverflowPolicy overflowPolicy,
+                             BatchWriter batchWriter) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.batchWriter = batchWriter;
+        this.thread = new Thread(this::run, "activity-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Queue an entry for writing, applying the overflow policy when the queue is full
+    public void submit(ActivityLog activity) {
+        if (!running) {
+            // Writer already stopped (shutdown in progress): write directly
+            writeBatch(List.of(activity));
+            return;
+        }
+
+        accepted.incrementAndGet();
+        boolean queued = queue.offer(activity);
+        if (!queued) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    try {
+                        queue.put(activity);
+                        queued = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queued) {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                            finish(1);
+                        }
+                        queued = queue.offer(activity);
+                    }
+                    break;
+                case CALLER_RUNS:
+                    writeBatch(List.of(activity));
+                    finish(1);
+                    return;
+                case DROP_NEWEST:
+                default:
+                    break;
+            }
+        }
+
+        if (queued) {
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        } else {
+            dropped.incrementAndGet();
+            finish(1);
+        }
+    }
+
+    // Wait until everything submitted before this call has been written (or the timeout passes)
+    public boolean flush(long timeoutMillis) {
+        long target = accepted.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (flushLock) {
+            while (finished.get() < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !thread.isAlive()) {
+                    return false;
+                }
+                try {
+                    flushLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Stop accepting work, drain the queue and wait for the writer thread to finish
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            System.err.println("Activity log writer did not finish, " + queue.size() + " entries not written");
+            return;
+        }
+
+        // Entries that slipped in while the writer was exiting
+        List<ActivityLog> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeBatch(rest);
+            finish(rest.size());
+        }
+    }
+
+    private void run() {
+        List<ActivityLog> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ActivityLog first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Keep draining; shutdown() ends the loop through the running flag
+                continue;
+            }
+            // Everything that queued up during the previous commit goes into this one
+            queue.drainTo(batch, maxBatchSize - 1);
+
+            writeBatch(batch);
+            finish(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<ActivityLog> batch) {
+        if (batchWriter.write(batch)) {
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+        } else {
+            failed.addAndGet(batch.size());
+        }
+    }
+
+    private void finish(int count) {
+        finished.addAndGet(count);
+        synchronized (flushLock) {
+            flushLock.notifyAll();
+        }
+    }
+
+    // Writer metrics
+    public int getQueueDepth() { return queue.size(); }
+    public long getMaxQueueDepth() { return maxQueueDepth.get(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getFailedCount() { return failed.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getLargestBatchSize() { return largestBatch.get(); }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0.0 : (double) written.get() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ActivityLogWriter[%s] queue=%d maxQueue=%d written=%d batches=%d avgBatch=%.1f maxBatch=%d dropped=%d failed=%d",
+            overflowPolicy, getQueueDepth(), getMaxQueueDepth(), getWrittenCount(), getBatchCount(),
+            getAverageBatchSize(), getLargestBatchSize(), getDroppedCount(), getFailedCount());
+    }
+}
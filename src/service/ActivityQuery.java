@@ -0,0 +1,120 @@
+package service;
+
+import model.ActivityLog;
+import java.util.List;
+
+/**
+ * Filter for the activity feed. Every criterion is optional; set ones are combined
+ * with AND and run in SQL. Pages are keyset-paginated on (timestamp, id), newest
+ * first: pass the last entry of one page to before() to get the next.
+ */
+public class ActivityQuery {
+    private String action;
+    private Integer userId;
+    private Integer bugId;
+    private Long from;              // epoch millis, inclusive
+    private Long to;                // epoch millis, inclusive
+    private Long beforeTimestamp;   // keyset position
+    private int beforeId;
+    
+    public ActivityQuery action(String action) {
+        this.action = action;
+        return this;
+    }
+    
+    public ActivityQuery userId(int userId) {
+        this.userId = userId;
+        return this;
+    }
+    
+    public ActivityQuery bugId(int bugId) {
+        this.bugId = bugId;
+        return this;
+    }
+    
+    public ActivityQuery from(long epochMillis) {
+        this.from = epochMillis;
+        return this;
+    }
+    
+    public ActivityQuery to(long epochMillis) {
+        this.to = epochMillis;
+        return this;
+    }
+    
+    // Only entries strictly older than the given one, in (timestamp, id) order
+    public ActivityQuery before(long timestamp, int id) {
+        this.beforeTimestamp = timestamp;
+        this.beforeId = id;
+        return this;
+    }
+    
+    // Getters
+    public String getAction() { return action; }
+    public Integer getUserId() { return userId; }
+    public Integer getBugId() { return bugId; }
+    public Long getFrom() { return from; }
+    public Long getTo() { return to; }
+    public Long getBeforeTimestamp() { return beforeTimestamp; }
+    public int getBeforeId() { return beforeId; }
+    
+    // Compile to SQL returning up to limit rows, appending bind values to params in placeholder order
+    public String toSql(List<Object> params, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM activity_logs WHERE 1 = 1");
+        
+        if (action != null) {
+            sql.append(" AND action = ?");
+            params.add(action);
+        }
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            params.add(userId);
+        }
+        if (bugId != null) {
+            sql.append(" AND bug_id = ?");
+            params.add(bugId);
+        }
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND timestamp <= ?");
+            params.add(to);
+        }
+        if (beforeTimestamp != null) {
+            // Row-value comparison lets SQLite seek straight to the keyset position
+            sql.append(" AND (timestamp, id) < (?, ?)");
+            params.add(beforeTimestamp);
+            params.add(beforeId);
+        }
+        
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        params.add(limit);
+        return sql.toString();
+    }
+    
+    // Same test in Java, for sinks that are not SQL (the journal)
+    public boolean matches(ActivityLog activity) {
+        if (action != null && !action.equals(activity.getAction())) {
+            return false;
+        }
+        if (userId != null && userId != activity.getUserId()) {
+            return false;
+        }
+        if (bugId != null && bugId != activity.getBugId()) {
+            return false;
+        }
+        if (from != null && activity.getTimestamp() < from) {
+            return false;
+        }
+        if (to != null && activity.getTimestamp() > to) {
+            return false;
+        }
+        if (beforeTimestamp != null) {
+            return activity.getTimestamp() < beforeTimestamp
+                || (activity.getTimestamp() == beforeTimestamp && activity.getId() < beforeId);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package service;
+
+import model.Bug;
+import model.BugSummary;
+import database.UserDAO;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Two-way map between user ids and usernames for bug assignees.
+ * Bugs are stored and indexed by assignee_id; this dictionary turns ids back into
+ * names for display. Each name is held once and shared by every bug assigned to
+ * that user, instead of one String per row.
+ * The map reloads when it meets an id or name it does not know yet, and at least every
+ * MAX_AGE_SECONDS: users can be renamed or deleted outside the application (the schema's
+ * triggers keep the bugs and search index in step), and a rename must not be served
+ * stale indefinitely.
+ */
+public class AssigneeDictionary {
+    public static final String UNASSIGNED = "Unassigned";
+    private static final long MAX_AGE_SECONDS = Long.getLong("bugtracker.assignees.maxAgeSeconds", 60);
+
+    private final Map<Integer, String> namesById = new HashMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<String, Integer> idsByFullName = new HashMap<>();   // lower-cased, lowest id wins
+    private final Set<String> missingNames = new HashSet<>();            // names unknown at the last reload
+    private final Set<Integer> missingIds = new HashSet<>();   // ids absent at the last reload
+    private boolean loaded;
+    private long loadedAtNanos;
+
+    // Username for the id; reloads once when the id is new (a user registered since the last load)
+    public synchronized String nameOf(int id) {
+        if (id <= 0) {
+            return UNASSIGNED;
+        }
+        reloadIfStale();
+        String name = namesById.get(id);
+        if (name == null && !missingIds.contains(id)) {
+            reload();
+            name = namesById.get(id);
+            if (name == null) {
+                // Remember the miss until the next reload so a dangling id does not reload on every row
+                missingIds.add(id);
+            }
+        }
+        return name != null ? name : "User #" + id;
+    }
+
+    // User id for a username or full name; 0 if there is no such user
+    public synchronized int idOf(String name) {
+        if (name == null || name.trim().isEmpty() || UNASSIGNED.equalsIgnoreCase(name.trim())) {
+            return 0;
+        }
+        name = name.trim();
+        reloadIfStale();
+        Integer id = lookup(name);
+        if (id == null && !missingNames.contains(name)) {
+            // A user registered since the last load; remember a real miss until the next reload
+            reload();
+            id = lookup(name);
+            if (id == null) {
+                missingNames.add(name);
+            }
+        }
+        return id != null ? id : 0;
+    }
+
+    // Fill in the assignee name of each bug; returns the same list
+    public List<Bug> resolve(List<Bug> bugs) {
+        for (Bug bug : bugs) {
+            resolve(bug);
+        }
+        return bugs;
+    }
+
+    public Bug resolve(Bug bug) {
+        if (bug != null) {
+            bug.setAssigneeName(nameOf(bug.getAssigneeId()));
+        }
+        return bug;
+    }
+
+    public List<BugSummary> resolveSummaries(List<BugSummary> summaries) {
+        for (BugSummary summary : summaries) {
+            summary.setAssigneeName(nameOf(summary.getAssigneeId()));
+        }
+        return summaries;
+    }
+
+    public synchronized int size() {
+        return idsByName.size();
+    }
+
+    // Users were added or changed in this process; the next lookup reloads
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void reloadIfStale() {
+        if (!loaded || System.nanoTime() - loadedAtNanos > MAX_AGE_SECONDS * 1_000_000_000L) {
+            reload();
+        }
+    }
+
+    // Username first, then full name (case-insensitive), as migration 10 matched them
+    private Integer lookup(String name) {
+        Integer id = idsByName.get(name);
+        return id != null ? id : idsByFullName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    private void reload() {
+        namesById.clear();
+        idsByName.clear();
+        idsByFullName.clear();
+        missingIds.clear();
+        missingNames.clear();
+        for (Map.Entry<Integer, String[]> user : UserDAO.getUserNamesById().entrySet()) {
+            String name = user.getValue()[0].intern();
+            namesById.put(user.getKey(), name);
+            idsByName.put(name, user.getKey());
+            String fullName = user.getValue()[1];
+            if (fullName != null) {
+                idsByFullName.merge(fullName.toLowerCase(Locale.ROOT), user.getKey(), Math::min);
+            }
+        }
+        loaded = true;
+        loadedAtNanos = System.nanoTime();
+    }
+}
@@ -3,6 +3,7 @@ package service;
 import model.User;
 import model.ActivityLog;
 import database.UserDAO;
+import java.util.List;
 
 /**
  * Service class for authentication operations
@@ -11,6 +12,12 @@ public class AuthService {
     private static User currentUser;
     private static ActivityLogService activityLogService = new ActivityLogService();
     
+    // Bloom filters of existing usernames and emails, built on first availability check.
+    // A miss proves the name is free without touching the database.
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static BloomFilter usernameFilter;
+    private static BloomFilter emailFilter;
+    
     // Get the currently logged in user
     public static User getCurrentUser() {
         return currentUser;
@@ -56,13 +63,8 @@ public class AuthService {
             userType = User.UserType.DEVELOPER; // Default
         }
         
-        // Check if username or email already exists
-        if (UserDAO.usernameExists(username)) {
-            return false;
-        }
-        if (UserDAO.emailExists(email)) {
-            return false;
-        }
+        // Callers check availability first (checkAvailability); the UNIQUE constraints on
+        // username and email reject anything taken since, and registerUser then returns false
         
         // Create new user
         String passwordHash = UserDAO.hashPassword(password);
@@ -71,6 +73,9 @@ public class AuthService {
         boolean registered = UserDAO.registerUser(user);
         
         if (registered) {
+            addToAvailabilityFilters(username, email);
+            BugService.getAssignees().invalidate();
+            
             // Log activity
             ActivityLog log = new ActivityLog(
                 0,  // System action
@@ -102,6 +107,62 @@ public class AuthService {
         }
     }
     
+    // Result of an availability check
+    public static class Availability {
+        public final boolean usernameTaken;
+        public final boolean emailTaken;
+        
+        public Availability(boolean usernameTaken, boolean emailTaken) {
+            this.usernameTaken = usernameTaken;
+            this.emailTaken = emailTaken;
+        }
+        
+        public boolean isAvailable() {
+            return !usernameTaken && !emailTaken;
+        }
+    }
+    
+    // Check whether a username and email are still free. Definite negatives come from the
+    // Bloom filters; only possible positives run one combined query.
+    public static Availability checkAvailability(String username, String email) {
+        boolean maybeUsername;
+        boolean maybeEmail;
+        synchronized (AuthService.class) {
+            loadAvailabilityFilters();
+            maybeUsername = username != null && usernameFilter.mightContain(username);
+            maybeEmail = email != null && emailFilter.mightContain(email);
+        }
+        if (!maybeUsername && !maybeEmail) {
+            return new Availability(false, false);
+        }
+        
+        int taken = UserDAO.findTaken(maybeUsername ? username : null, maybeEmail ? email : null);
+        return new Availability((taken & UserDAO.USERNAME_TAKEN) != 0, (taken & UserDAO.EMAIL_TAKEN) != 0);
+    }
+    
+    // Build the filters from the users table, sized with headroom for new registrations;
+    // rebuilt once registrations outgrow that headroom
+    private static synchronized void loadAvailabilityFilters() {
+        if (usernameFilter != null && !usernameFilter.isSaturated()) {
+            return;
+        }
+        List<String[]> users = UserDAO.getUsernamesAndEmails();
+        int expected = Math.max(1024, users.size() * 2);
+        usernameFilter = new BloomFilter(expected, FILTER_FALSE_POSITIVE_RATE);
+        emailFilter = new BloomFilter(expected, FILTER_FALSE_POSITIVE_RATE);
+        for (String[] user : users) {
+            usernameFilter.add(user[0]);
+            emailFilter.add(user[1]);
+        }
+    }
+    
+    private static synchronized void addToAvailabilityFilters(String username, String email) {
+        if (usernameFilter != null) {
+            usernameFilter.add(username);
+            emailFilter.add(email);
+        }
+    }
+    
     // Check if user is logged in
     public static boolean isLoggedIn() {
         return currentUser != null;
@@ -0,0 +1,116 @@
+package service;
+
+import model.Bug;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Size-bounded LRU cache of bugs by id, shared by all BugService instances.
+ * Bug is mutable, so the cache keeps its own copy and hands out copies:
+ * a dialog editing the bug it got cannot change the cached value.
+ */
+public class BugCache {
+    private final int maxSize;
+    private final LinkedHashMap<Integer, Bug> entries;
+
+    // Bumped on every put/invalidate; a load that raced with a write is not cached
+    private long writeVersion;
+
+    // Metrics
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loadCount;
+    private long totalLoadNanos;
+    private long maxLoadNanos;
+
+    public BugCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Bug> eldest) {
+                if (size() > BugCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Return the cached bug, or load it with the loader on a miss (null if it does not exist)
+    public Bug get(int id, IntFunction<Bug> loader) {
+        long version;
+        synchronized (this) {
+            Bug cached = entries.get(id);
+            if (cached != null) {
+                hits++;
+                return new Bug(cached);
+            }
+            misses++;
+            version = writeVersion;
+        }
+
+        // Load outside the lock so a slow query does not block other lookups
+        long start = System.nanoTime();
+        Bug loaded = loader.apply(id);
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (this) {
+            loadCount++;
+            totalLoadNanos += elapsed;
+            maxLoadNanos = Math.max(maxLoadNanos, elapsed);
+            if (loaded != null && version == writeVersion && maxSize > 0) {
+                entries.put(id, new Bug(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    // Write-through after a successful update
+    public synchronized void put(Bug bug) {
+        writeVersion++;
+        if (maxSize > 0) {
+            entries.put(bug.getId(), new Bug(bug));
+        }
+    }
+
+    // Drop a bug after a delete or a failed write
+    public synchronized void invalidate(int id) {
+        writeVersion++;
+        entries.remove(id);
+    }
+
+    public synchronized void clear() {
+        writeVersion++;
+        entries.clear();
+    }
+
+    // Cache metrics
+    public synchronized int getSize() { return entries.size(); }
+    public int getMaxSize() { return maxSize; }
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized double getAverageLoadMillis() {
+        return loadCount == 0 ? 0.0 : totalLoadNanos / (loadCount * 1_000_000.0);
+    }
+
+    public synchronized double getMaxLoadMillis() {
+        return maxLoadNanos / 1_000_000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BugCache size=%d/%d hits=%d misses=%d hitRatio=%.2f evictions=%d avgLoad=%.3fms maxLoad=%.3fms",
+            entries.size(), maxSize, hits, misses, getHitRatio(), evictions,
+            getAverageLoadMillis(), getMaxLoadMillis());
+    }
+}
@@ -0,0 +1,113 @@
+package service;
+
+import database.BugDAO;
+import util.CsvWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Exports every bug to CSV (optionally gzip-compressed).
+ * Rows go from the JDBC cursor through a CsvWriter one at a time, so memory use does
+ * not grow with the number of bugs. Output is written to a ".part" file and renamed
+ * when complete; a cancelled or failed export leaves no file behind.
+ * Safe to run off the event thread.
+ */
+public class BugCsvExporter {
+    private static final int BUFFER_SIZE = Integer.getInteger("bugtracker.export.bufferKb", 256) * 1024;
+    private static final int PROGRESS_INTERVAL = 500;   // rows between progress callbacks
+    
+    private static final String[] HEADER = {
+        "ID", "Title", "Description", "Priority", "Status", "Assigned To", "Created By", "Created Date", "Updated Date"
+    };
+    
+    // Called every few hundred rows with the rows written so far and the expected total
+    public interface ProgressListener {
+        void progress(int rowsWritten, int totalRows);
+    }
+    
+    // Outcome of one export
+    public static class Result {
+        public final Path file;
+        public final int rows;
+        public final long bytes;        // uncompressed size
+        public final boolean cancelled;
+        
+        public Result(Path file, int rows, long bytes, boolean cancelled) {
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.cancelled = cancelled;
+        }
+    }
+    
+    private final BugService bugService;
+    
+    public BugCsvExporter(BugService bugService) {
+        this.bugService = bugService;
+    }
+    
+    // Write all bugs to target; polls cancelled between rows
+    public Result export(Path target, boolean gzip, ProgressListener listener, BooleanSupplier cancelled)
+            throws IOException, SQLException {
+        // Total comes from the bug counters, so knowing it costs no scan
+        int total = bugService.getStatistics().totalBugs;
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        int[] rows = new int[1];
+        boolean[] stopped = new boolean[1];
+        long bytes;
+        
+        boolean complete = false;
+        try {
+            try (CsvWriter csv = CsvWriter.open(part, gzip, BUFFER_SIZE)) {
+                for (String column : HEADER) {
+                    csv.field(column);
+                }
+                csv.endRow();
+                
+                bugService.streamBugs(null, BugDAO.DEFAULT_FETCH_SIZE, bug -> {
+                    if (cancelled.getAsBoolean()) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    csv.field(bug.getId())
+                       .field(bug.getTitle())
+                       .field(bug.getDescription())
+                       .field(bug.getPriority().toString())
+                       .field(bug.getStatus().toString())
+                       .field(bug.getAssignedTo())
+                       .field("N/A")    // Created by placeholder
+                       .field(bug.getCreatedDate().toString())
+                       .field(bug.getUpdatedDate().toString());
+                    csv.endRow();
+                    
+                    if (++rows[0] % PROGRESS_INTERVAL == 0 && listener != null) {
+                        listener.progress(rows[0], Math.max(total, rows[0]));
+                    }
+                    return true;
+                });
+                
+                csv.flush();
+                bytes = csv.getBytesWritten();
+            }
+            
+            if (stopped[0]) {
+                return new Result(target, rows[0], bytes, true);
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            complete = true;
+            if (listener != null) {
+                listener.progress(rows[0], rows[0]);
+            }
+            return new Result(target, rows[0], bytes, false);
+            
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package service;
+
+import database.BugDAO;
+import database.FtsQuery;
+import model.Bug.Priority;
+import model.Bug.Status;
+import java.util.List;
+
+/**
+ * Search criteria for bugs. Every criterion is optional; set ones are combined
+ * with AND and compiled into a single parameterized SQL query, so filtering
+ * happens in SQLite against the indexes instead of in Java.
+ */
+public class BugQuery {
+    private String keyword;
+    private Status status;
+    private Priority priority;
+    private String assignedTo;
+    private Long createdFrom;   // epoch millis, inclusive
+    private Long createdTo;     // epoch millis, exclusive
+    private int limit;          // 0 = no limit
+    
+    public BugQuery keyword(String keyword) {
+        this.keyword = keyword;
+        return this;
+    }
+    
+    public BugQuery status(Status status) {
+        this.status = status;
+        return this;
+    }
+    
+    public BugQuery priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+    
+    public BugQuery assignedTo(String assignedTo) {
+        this.assignedTo = assignedTo;
+        return this;
+    }
+    
+    public BugQuery createdFrom(long epochMillis) {
+        this.createdFrom = epochMillis;
+        return this;
+    }
+    
+    public BugQuery createdTo(long epochMillis) {
+        this.createdTo = epochMillis;
+        return this;
+    }
+    
+    public BugQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+    
+    // Getters
+    public String getKeyword() { return keyword; }
+    public Status getStatus() { return status; }
+    public Priority getPriority() { return priority; }
+    public String getAssignedTo() { return assignedTo; }
+    public Long getCreatedFrom() { return createdFrom; }
+    public Long getCreatedTo() { return createdTo; }
+    public int getLimit() { return limit; }
+    
+    // Compile to SQL, appending bind values to params in placeholder order.
+    // With a keyword the query is driven by the full-text index and ranked by relevance;
+    // otherwise it returns newest bugs first.
+    public String toSql(List<Object> params) {
+        return toSql(params, "bugs.*");
+    }
+    
+    // Same query selecting only the BugSummary columns
+    public String toSummarySql(List<Object> params) {
+        return toSql(params, BugDAO.SUMMARY_COLUMNS);
+    }
+    
+    private String toSql(List<Object> params, String columns) {
+        String match = FtsQuery.toMatchExpression(keyword);
+        StringBuilder sql = new StringBuilder();
+        
+        if (match != null) {
+            sql.append("SELECT ").append(columns)
+               .append(" FROM bugs_fts JOIN bugs ON bugs.id = bugs_fts.rowid WHERE bugs_fts MATCH ?");
+            params.add(match);
+        } else {
+            sql.append("SELECT ").append(columns).append(" FROM bugs WHERE 1 = 1");
+        }
+        
+        if (status != null) {
+            sql.append(" AND bugs.status = ?");
+            params.add(status.name());
+        }
+        if (priority != null) {
+            sql.append(" AND bugs.priority = ?");
+            params.add(priority.name());
+        }
+        if (assignedTo != null && !assignedTo.trim().isEmpty()) {
+            // Match the assignee by username or full name, then use the assignee_id index
+            sql.append(" AND bugs.assignee_id IN (SELECT id FROM users WHERE username = ? OR full_name = ? COLLATE NOCASE)");
+            params.add(assignedTo.trim());
+            params.add(assignedTo.trim());
+        }
+        if (createdFrom != null) {
+            sql.append(" AND bugs.created_date >= ?");
+            params.add(createdFrom);
+        }
+        if (createdTo != null) {
+            sql.append(" AND bugs.created_date < ?");
+            params.add(createdTo);
+        }
+        
+        if (match != null) {
+            sql.append(" ORDER BY bm25(bugs_fts, 10.0, 1.0, 5.0), bugs.id DESC");
+        } else {
+            sql.append(" ORDER BY bugs.id DESC");
+        }
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        
+        return sql.toString();
+    }
+}
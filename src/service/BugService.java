@@ -3,27 +3,56 @@ package service;
 import model.Bug;
 import model.Bug.Priority;
 import model.Bug.Status;
+import model.BugSummary;
 import model.ActivityLog;
 import model.User;
+import database.BugCounterDAO;
 import database.BugDAO;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing Bug operations (business logic)
  */
 public class BugService {
+    // Shared by every BugService so all windows see the same cached bugs
+    private static final BugCache bugCache = new BugCache(Integer.getInteger("bugtracker.bugCache.size", 1000));
+    
+    // Optional in-memory mode (-Dbugtracker.bugs.inMemory=true): reads are served from
+    // an InMemoryBugStore with bitset indexes, writes go to the database and the store
+    private static final boolean IN_MEMORY = Boolean.getBoolean("bugtracker.bugs.inMemory");
+    private static InMemoryBugStore memoryStore;
+    
+    // Most recently created/updated bugs for the dashboard, kept current on every write
+    private static final RecentBugs recentBugs = new RecentBugs(Integer.getInteger("bugtracker.recentBugs.size", 20));
+    
+    // Bugs carry only the assignee's user id from the database; names come from here
+    private static final AssigneeDictionary assignees = new AssigneeDictionary();
+    
     private ActivityLogService activityLogService;
     
     public BugService() {
         this.activityLogService = new ActivityLogService();
     }
     
-    // Create a new bug
+    // Create a new bug; returns null if assignedTo names no user
     public Bug createBug(String title, String description, Priority priority, String assignedTo) {
         Bug bug = new Bug(title, description, priority, assignedTo);
+        if (!assign(bug, assignedTo)) {
+            return null;
+        }
         Bug createdBug = BugDAO.createBug(bug, AuthService.getCurrentUser().getId());
         
         if (createdBug != null) {
+            bugCache.put(createdBug);
+            recentBugs.touch(new BugSummary(createdBug));
+            if (memoryStore() != null) {
+                memoryStore().put(createdBug);
+            }
+            
             // Log activity
             User currentUser = AuthService.getCurrentUser();
             ActivityLog log = new ActivityLog(
@@ -31,7 +60,7 @@ public class BugService {
                 currentUser.getUsername(),
                 "BUG_CREATED",
                 String.format("Created bug: '%s' [Priority: %s, Assigned to: %s]", 
-                    title, priority, assignedTo),
+                    title, priority, createdBug.getAssignedTo()),
                 createdBug.getId()
             );
             activityLogService.logActivity(log);
@@ -40,21 +69,150 @@ public class BugService {
         return createdBug;
     }
     
+    // Bulk-create bugs for the current user in one transaction (used by imports);
+    // returns null if any bug's assignee names no user
+    public int[] importBugs(List<Bug> bugs) {
+        for (Bug bug : bugs) {
+            if (bug.getAssigneeId() <= 0 && !assign(bug, bug.getAssignedTo())) {
+                System.err.println("Error importing bugs: unknown assignee '" + bug.getAssignedTo() + "'");
+                return null;
+            }
+        }
+        User currentUser = AuthService.getCurrentUser();
+        int[] ids = BugDAO.createBugs(bugs, currentUser.getId());
+        
+        if (ids != null && ids.length > 0) {
+            reloadMemoryStore();
+            recentBugs.invalidate();
+            
+            ActivityLog log = new ActivityLog(
+                currentUser.getId(),
+                currentUser.getUsername(),
+                "BUGS_IMPORTED",
+                String.format("Imported %d bugs (#%d - #%d)", ids.length, ids[0], ids[ids.length - 1]),
+                0
+            );
+            activityLogService.logActivity(log);
+        }
+        
+        return ids;
+    }
+    
+    // The in-memory store, loaded on first use; null unless in-memory mode is on
+    private static synchronized InMemoryBugStore memoryStore() {
+        if (IN_MEMORY && memoryStore == null) {
+            InMemoryBugStore store = new InMemoryBugStore();
+            store.load(assignees.resolve(BugDAO.getAllBugs()));
+            memoryStore = store;
+        }
+        return memoryStore;
+    }
+    
+    // Re-read every bug into the store after writes it cannot follow row by row
+    private static synchronized void reloadMemoryStore() {
+        if (memoryStore != null) {
+            memoryStore.load(assignees.resolve(BugDAO.getAllBugs()));
+        }
+    }
+    
     // Get all bugs
     public List<Bug> getAllBugs() {
-        return BugDAO.getAllBugs();
+        InMemoryBugStore store = memoryStore();
+        return store != null ? store.filter(null, null, 0) : assignees.resolve(BugDAO.getAllBugs());
+    }
+    
+    // Get a page of bug summaries (newest first) after the given id; status and priority may be null.
+    // Summaries carry no description; use getBugById for the full bug.
+    public BugPage getBugPage(int afterId, int pageSize, Status status, Priority priority) {
+        // Ask for one extra row to know whether another page exists
+        InMemoryBugStore store = memoryStore();
+        List<BugSummary> bugs = store != null
+            ? store.summaryPage(afterId, pageSize + 1, status, priority, 0)
+            : assignees.resolveSummaries(BugDAO.getBugSummaryPage(afterId, pageSize + 1, status, priority));
+        boolean hasMore = bugs.size() > pageSize;
+        if (hasMore) {
+            bugs = bugs.subList(0, pageSize);
+        }
+        int nextAfterId = bugs.isEmpty() ? afterId : bugs.get(bugs.size() - 1).getId();
+        return new BugPage(bugs, nextAfterId, hasMore);
+    }
+    
+    // The n most recently created or updated bugs, newest first. Served from the
+    // ring buffer when n fits in it, otherwise from the updated_date index.
+    public List<BugSummary> getRecentBugs(int n) {
+        if (n > recentBugs.getCapacity()) {
+            return assignees.resolveSummaries(BugDAO.getRecentBugSummaries(n));
+        }
+        return recentBugs.get(n, limit -> assignees.resolveSummaries(BugDAO.getRecentBugSummaries(limit)));
+    }
+    
+    // Stream every bug (or those matching keyword) to the handler without materializing a list
+    public int streamBugs(String keyword, BugDAO.BugRowHandler handler) throws SQLException, IOException {
+        return streamBugs(keyword, BugDAO.DEFAULT_FETCH_SIZE, handler);
+    }
+    
+    public int streamBugs(String keyword, int fetchSize, BugDAO.BugRowHandler handler) throws SQLException, IOException {
+        return BugDAO.streamBugs(keyword, fetchSize, bug -> handler.handle(assignees.resolve(bug)));
     }
     
-    // Get bug by ID
+    // Get bug by ID, served from the cache when possible
     public Bug getBugById(int id) {
-        return BugDAO.getBugById(id);
+        InMemoryBugStore store = memoryStore();
+        if (store != null) {
+            return store.get(id);
+        }
+        return bugCache.get(id, bugId -> assignees.resolve(BugDAO.getBugById(bugId)));
+    }
+    
+    // User id for an assignee name (username or full name); 0 if there is no such user
+    public int findAssigneeId(String assignedTo) {
+        return assignees.idOf(assignedTo);
+    }
+    
+    // True for a blank name (unassigned) or the name of an existing user
+    public boolean isKnownAssignee(String assignedTo) {
+        return isUnassigned(assignedTo) || assignees.idOf(assignedTo) > 0;
+    }
+    
+    public static AssigneeDictionary getAssignees() {
+        return assignees;
+    }
+    
+    // Point the bug at the user named assignedTo; false if no such user exists
+    private static boolean assign(Bug bug, String assignedTo) {
+        if (isUnassigned(assignedTo)) {
+            bug.setAssignee(0, AssigneeDictionary.UNASSIGNED);
+            return true;
+        }
+        int assigneeId = assignees.idOf(assignedTo);
+        if (assigneeId <= 0) {
+            return false;
+        }
+        bug.setAssignee(assigneeId, assignees.nameOf(assigneeId));
+        return true;
+    }
+    
+    private static boolean isUnassigned(String assignedTo) {
+        return assignedTo == null || assignedTo.trim().isEmpty()
+            || AssigneeDictionary.UNASSIGNED.equalsIgnoreCase(assignedTo.trim());
+    }
+    
+    // Cache metrics (hit ratio, evictions, load latency)
+    public static BugCache getBugCache() {
+        return bugCache;
     }
     
-    // Update bug
+    // Update bug; fails if assignedTo names no user
     public boolean updateBug(int id, String title, String description, 
                             Priority priority, Status status, String assignedTo) {
         Bug bug = getBugById(id);
         if (bug != null) {
+            int oldAssigneeId = bug.getAssigneeId();
+            String oldAssignee = bug.getAssignedTo();
+            if (!assign(bug, assignedTo)) {
+                return false;
+            }
+            
             // Track what changed
             StringBuilder changes = new StringBuilder();
             if (!bug.getTitle().equals(title)) {
@@ -66,17 +224,16 @@ public class BugService {
             if (bug.getStatus() != status) {
                 changes.append(String.format("Status: %s → %s; ", bug.getStatus(), status));
             }
-            if (!bug.getAssignedTo().equals(assignedTo)) {
-                changes.append(String.format("Assigned: %s → %s; ", bug.getAssignedTo(), assignedTo));
+            if (bug.getAssigneeId() != oldAssigneeId) {
+                changes.append(String.format("Assigned: %s → %s; ", oldAssignee, bug.getAssignedTo()));
             }
             
             bug.setTitle(title);
             bug.setDescription(description);
             bug.setPriority(priority);
             bug.setStatus(status);
-            bug.setAssignedTo(assignedTo);
             
-            boolean updated = BugDAO.updateBug(bug);
+            boolean updated = saveBug(bug);
             
             if (updated && changes.length() > 0) {
                 // Log activity
@@ -96,10 +253,33 @@ public class BugService {
         return false;
     }
     
+    // Persist a bug the caller has already modified, keeping the cache in step;
+    // no activity is logged, callers log their own
+    public boolean saveBug(Bug bug) {
+        boolean updated = BugDAO.updateBug(bug);
+        if (updated) {
+            bugCache.put(bug);
+            recentBugs.touch(new BugSummary(bug));
+            if (memoryStore() != null) {
+                memoryStore().put(bug);
+            }
+        } else {
+            bugCache.invalidate(bug.getId());
+        }
+        return updated;
+    }
+    
     // Delete bug
     public boolean deleteBug(int id) {
         Bug bug = getBugById(id);
         boolean deleted = BugDAO.deleteBug(id);
+        bugCache.invalidate(id);
+        if (deleted) {
+            recentBugs.remove(id);
+        }
+        if (deleted && memoryStore() != null) {
+            memoryStore().remove(id);
+        }
         
         if (deleted && bug != null) {
             // Log activity
@@ -119,39 +299,142 @@ public class BugService {
     
     // Filter bugs by status
     public List<Bug> filterByStatus(Status status) {
-        return BugDAO.filterByStatus(status);
+        InMemoryBugStore store = memoryStore();
+        return store != null ? store.filter(status, null, 0) : assignees.resolve(BugDAO.filterByStatus(status));
     }
     
     // Filter bugs by priority
     public List<Bug> filterByPriority(Priority priority) {
-        return BugDAO.filterByPriority(priority);
+        InMemoryBugStore store = memoryStore();
+        return store != null ? store.filter(null, priority, 0) : assignees.resolve(BugDAO.filterByPriority(priority));
+    }
+    
+    // Filter on any combination of status, priority and assignee (null = any), newest first
+    public List<Bug> filterBugs(Status status, Priority priority, String assignedTo) {
+        InMemoryBugStore store = memoryStore();
+        if (store != null) {
+            if (assignedTo == null || assignedTo.trim().isEmpty()) {
+                return store.filter(status, priority, 0);
+            }
+            int assigneeId = assignees.idOf(assignedTo);
+            return assigneeId > 0 ? store.filter(status, priority, assigneeId) : new ArrayList<>();
+        }
+        return findBugs(new BugQuery().status(status).priority(priority).assignedTo(assignedTo));
     }
     
     // Search bugs by keyword in title or description
     public List<Bug> searchBugs(String keyword) {
-        return BugDAO.searchBugs(keyword);
+        return assignees.resolve(BugDAO.searchBugs(keyword));
+    }
+    
+    // Search for list views: summaries only, in the same rank order as searchBugs
+    public List<BugSummary> searchBugSummaries(String keyword) {
+        return assignees.resolveSummaries(BugDAO.searchBugSummaries(keyword));
+    }
+    
+    // Find bugs matching all criteria set on the query, filtered in SQL
+    public List<Bug> findBugs(BugQuery query) {
+        List<Object> params = new ArrayList<>();
+        String sql = query.toSql(params);
+        return assignees.resolve(BugDAO.queryBugs(sql, params));
+    }
+    
+    // Like findBugs, selecting only the summary columns
+    public List<BugSummary> findBugSummaries(BugQuery query) {
+        List<Object> params = new ArrayList<>();
+        String sql = query.toSummarySql(params);
+        return assignees.resolveSummaries(BugDAO.queryBugSummaries(sql, params));
     }
     
-    // Get bug statistics
+    // Get bug statistics from the trigger-maintained counters (no table scan)
     public BugStats getStatistics() {
-        List<Bug> bugs = getAllBugs();
-        BugStats stats = new BugStats();
-        stats.totalBugs = bugs.size();
-        stats.newBugs = (int) bugs.stream().filter(b -> b.getStatus() == Status.NEW).count();
-        stats.inProgressBugs = (int) bugs.stream().filter(b -> b.getStatus() == Status.IN_PROGRESS).count();
-        stats.resolvedBugs = (int) bugs.stream().filter(b -> b.getStatus() == Status.RESOLVED).count();
-        stats.closedBugs = (int) bugs.stream().filter(b -> b.getStatus() == Status.CLOSED).count();
-        stats.criticalBugs = (int) bugs.stream().filter(b -> b.getPriority() == Priority.CRITICAL).count();
-        return stats;
-    }
-    
-    // Inner class for statistics
+        return new BugStats(BugCounterDAO.getStatusPriorityCounts());
+    }
+    
+    // The k assignees with the most bugs, from the assignee counters
+    public List<TopK.Ranked<String>> getTopAssignees(int k) {
+        return rankUsers(BugCounterDAO.getTopAssignees(k), k);
+    }
+    
+    // The k users who reported (created) the most bugs
+    public List<TopK.Ranked<String>> getTopReporters(int k) {
+        return rankUsers(BugDAO.getTopCreators(k), k);
+    }
+    
+    // Name the user ids of an already-limited count map
+    private static List<TopK.Ranked<String>> rankUsers(Map<Integer, Integer> countsByUserId, int k) {
+        TopK<String> top = new TopK<>(k);
+        for (Map.Entry<Integer, Integer> entry : countsByUserId.entrySet()) {
+            top.offer(assignees.nameOf(entry.getKey()), entry.getValue());
+        }
+        return top.result();
+    }
+    
+    // Compare the counters with a full recount and rebuild them if they drifted;
+    // returns the mismatches that were found
+    public List<String> checkStatisticsCounters() {
+        return BugCounterDAO.repairIfInconsistent();
+    }
+    
+    // Inner class for one page of results; pass nextAfterId back to get the following page
+    public static class BugPage {
+        public final List<BugSummary> bugs;
+        public final int nextAfterId;
+        public final boolean hasMore;
+        
+        public BugPage(List<BugSummary> bugs, int nextAfterId, boolean hasMore) {
+            this.bugs = bugs;
+            this.nextAfterId = nextAfterId;
+            this.hasMore = hasMore;
+        }
+    }
+    
+    // Inner class for statistics: the full status x priority matrix plus the common totals
     public static class BugStats {
         public int totalBugs;
         public int newBugs;
         public int inProgressBugs;
         public int resolvedBugs;
         public int closedBugs;
+        public int reopenedBugs;
         public int criticalBugs;
+        
+        private final int[][] matrix;
+        
+        public BugStats(int[][] matrix) {
+            this.matrix = matrix;
+            for (Status status : Status.values()) {
+                totalBugs += count(status);
+            }
+            newBugs = count(Status.NEW);
+            inProgressBugs = count(Status.IN_PROGRESS);
+            resolvedBugs = count(Status.RESOLVED);
+            closedBugs = count(Status.CLOSED);
+            reopenedBugs = count(Status.REOPENED);
+            criticalBugs = count(Priority.CRITICAL);
+        }
+        
+        // Bugs with this status and priority
+        public int count(Status status, Priority priority) {
+            return matrix[status.ordinal()][priority.ordinal()];
+        }
+        
+        // Bugs with this status, any priority
+        public int count(Status status) {
+            int sum = 0;
+            for (int c : matrix[status.ordinal()]) {
+                sum += c;
+            }
+            return sum;
+        }
+        
+        // Bugs with this priority, any status
+        public int count(Priority priority) {
+            int sum = 0;
+            for (int[] row : matrix) {
+                sum += row[priority.ordinal()];
+            }
+            return sum;
+        }
     }
 }
@@ -0,0 +1,303 @@
+package service;
+
+import model.Bug;
+import model.Bug.Priority;
+import model.Bug.Status;
+import model.BugSummary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * All bugs held in memory, with one bitset per status, priority and assignee.
+ * Bugs occupy slots in ascending id order (ids only grow), so a filter is an AND
+ * of bitsets and "newest first" is a walk from the highest set bit down.
+ * Used by BugService when -Dbugtracker.bugs.inMemory=true.
+ */
+public class InMemoryBugStore {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slot arrays: slotIds is sorted, a deleted slot keeps its id but has no bug
+    // until compact() squeezes the deleted slots out
+    private int[] slotIds = new int[1024];
+    private Bug[] slotBugs = new Bug[1024];
+    private int slotCount;
+
+    // Deleted slots are reclaimed once they outnumber the live ones (and there are this many)
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final BitSet live = new BitSet();
+    private final BitSet[] byStatus = new BitSet[Status.values().length];
+    private final BitSet[] byPriority = new BitSet[Priority.values().length];
+    private final Map<Integer, BitSet> byAssignee = new HashMap<>();
+
+    public InMemoryBugStore() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new BitSet();
+        }
+        for (int i = 0; i < byPriority.length; i++) {
+            byPriority[i] = new BitSet();
+        }
+    }
+
+    // Replace the contents with the given bugs
+    public void load(List<Bug> bugs) {
+        List<Bug> sorted = new ArrayList<>(bugs);
+        sorted.sort(Comparator.comparingInt(Bug::getId));
+
+        lock.writeLock().lock();
+        try {
+            reset(sorted.size());
+            for (Bug bug : sorted) {
+                append(new Bug(bug));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add a new bug or replace an existing one, moving its index bits
+    public void put(Bug bug) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(bug.getId());
+            if (slot < 0) {
+                if (slotCount > 0 && bug.getId() < slotIds[slotCount - 1]) {
+                    // Cannot happen with AUTOINCREMENT ids; keep slots sorted anyway
+                    insertAt(-slot - 1, new Bug(bug));
+                } else {
+                    append(new Bug(bug));
+                }
+                return;
+            }
+            if (slotBugs[slot] != null) {
+                unindex(slot, slotBugs[slot]);
+            }
+            slotBugs[slot] = new Bug(bug);
+            index(slot, slotBugs[slot]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(id);
+            if (slot >= 0 && slotBugs[slot] != null) {
+                unindex(slot, slotBugs[slot]);
+                slotBugs[slot] = null;
+                int dead = slotCount - live.cardinality();
+                if (dead >= COMPACT_MIN_DEAD && dead > slotCount / 2) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Bug get(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(id);
+            return slot >= 0 && slotBugs[slot] != null ? new Bug(slotBugs[slot]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every bug matching the filters (null / assignee 0 = any), newest first
+    public List<Bug> filter(Status status, Priority priority, int assigneeId) {
+        return page(0, Integer.MAX_VALUE, status, priority, assigneeId);
+    }
+
+    // Up to limit matching bugs with id below afterId (or from the top when afterId <= 0), newest first
+    public List<Bug> page(int afterId, int limit, Status status, Priority priority, int assigneeId) {
+        return walk(afterId, limit, status, priority, assigneeId, Bug::new);
+    }
+
+    // Like page(), returning summaries instead of copies of the full bugs
+    public List<BugSummary> summaryPage(int afterId, int limit, Status status, Priority priority, int assigneeId) {
+        return walk(afterId, limit, status, priority, assigneeId, BugSummary::new);
+    }
+
+    // Walk the matching slots downward from afterId, mapping each bug while the read lock is held
+    private <T> List<T> walk(int afterId, int limit, Status status, Priority priority, int assigneeId,
+                             Function<Bug, T> mapper) {
+        List<T> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(status, priority, assigneeId);
+            int slot = afterId > 0 ? lowerSlot(afterId) : slotCount - 1;
+            while (slot >= 0 && results.size() < limit) {
+                slot = matches.previousSetBit(slot);
+                if (slot < 0) {
+                    break;
+                }
+                results.add(mapper.apply(slotBugs[slot]));
+                slot--;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return results;
+    }
+
+    // Number of bugs matching the filters, without copying any of them
+    public int count(Status status, Priority priority, int assigneeId) {
+        lock.readLock().lock();
+        try {
+            return matching(status, priority, assigneeId).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slots matching the filters. Index bits are only ever set for live slots, so the
+    // result starts from a copy of the smallest selected index and ANDs in the others;
+    // with no filter it is the live set itself. Callers must not modify the result.
+    private BitSet matching(Status status, Priority priority, int assigneeId) {
+        List<BitSet> selected = new ArrayList<>(3);
+        if (status != null) {
+            selected.add(byStatus[status.ordinal()]);
+        }
+        if (priority != null) {
+            selected.add(byPriority[priority.ordinal()]);
+        }
+        if (assigneeId > 0) {
+            BitSet assignee = byAssignee.get(assigneeId);
+            if (assignee == null) {
+                return new BitSet();
+            }
+            selected.add(assignee);
+        }
+        if (selected.isEmpty()) {
+            return live;
+        }
+        if (selected.size() == 1) {
+            return selected.get(0);
+        }
+
+        BitSet smallest = selected.get(0);
+        for (BitSet bits : selected) {
+            if (bits.cardinality() < smallest.cardinality()) {
+                smallest = bits;
+            }
+        }
+        BitSet result = (BitSet) smallest.clone();
+        for (BitSet bits : selected) {
+            if (bits != smallest) {
+                result.and(bits);
+            }
+        }
+        return result;
+    }
+
+    // Squeeze out deleted slots and rebuild the indexes over the remaining bugs
+    private void compact() {
+        Bug[] oldBugs = slotBugs;
+        int oldCount = slotCount;
+        reset(live.cardinality());
+        for (int i = 0; i < oldCount; i++) {
+            if (oldBugs[i] != null) {
+                append(oldBugs[i]);
+            }
+        }
+    }
+
+    // Empty slot arrays sized for the expected number of bugs, and empty indexes
+    private void reset(int expected) {
+        slotIds = new int[Math.max(1024, expected * 2)];
+        slotBugs = new Bug[slotIds.length];
+        slotCount = 0;
+        live.clear();
+        for (BitSet bits : byStatus) {
+            bits.clear();
+        }
+        for (BitSet bits : byPriority) {
+            bits.clear();
+        }
+        byAssignee.clear();
+    }
+
+    private void append(Bug bug) {
+        ensureCapacity();
+        slotIds[slotCount] = bug.getId();
+        slotBugs[slotCount] = bug;
+        index(slotCount, bug);
+        slotCount++;
+    }
+
+    // Shift later slots up by one; their index bits move with them
+    private void insertAt(int slot, Bug bug) {
+        ensureCapacity();
+        for (int i = slotCount - 1; i >= slot; i--) {
+            if (slotBugs[i] != null) {
+                unindex(i, slotBugs[i]);
+                index(i + 1, slotBugs[i]);
+            }
+        }
+        System.arraycopy(slotIds, slot, slotIds, slot + 1, slotCount - slot);
+        System.arraycopy(slotBugs, slot, slotBugs, slot + 1, slotCount - slot);
+        slotIds[slot] = bug.getId();
+        slotBugs[slot] = bug;
+        index(slot, bug);
+        slotCount++;
+    }
+
+    private void ensureCapacity() {
+        if (slotCount == slotIds.length) {
+            slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+            slotBugs = Arrays.copyOf(slotBugs, slotCount * 2);
+        }
+    }
+
+    private void index(int slot, Bug bug) {
+        live.set(slot);
+        byStatus[bug.getStatus().ordinal()].set(slot);
+        byPriority[bug.getPriority().ordinal()].set(slot);
+        byAssignee.computeIfAbsent(bug.getAssigneeId(), k -> new BitSet()).set(slot);
+    }
+
+    private void unindex(int slot, Bug bug) {
+        live.clear(slot);
+        byStatus[bug.getStatus().ordinal()].clear(slot);
+        byPriority[bug.getPriority().ordinal()].clear(slot);
+        BitSet assignee = byAssignee.get(bug.getAssigneeId());
+        if (assignee != null) {
+            assignee.clear(slot);
+            if (assignee.isEmpty()) {
+                byAssignee.remove(bug.getAssigneeId());
+            }
+        }
+    }
+
+    // Slot holding the id, or -(insertion point) - 1
+    private int findSlot(int id) {
+        return Arrays.binarySearch(slotIds, 0, slotCount, id);
+    }
+
+    // Highest slot whose id is below the given id, or -1
+    private int lowerSlot(int id) {
+        int slot = findSlot(id);
+        return slot >= 0 ? slot - 1 : -slot - 2;
+    }
+}
@@ -0,0 +1,93 @@
+package service;
+
+import model.BugSummary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Fixed-size ring buffer of the most recently created or updated bugs, newest first.
+ * Filled once from an indexed "ORDER BY updated_date DESC LIMIT n" query and then kept
+ * current by BugService on every create, update and delete, so the dashboard reads
+ * it without touching the database.
+ */
+public class RecentBugs {
+    private final BugSummary[] ring;
+    private int head;       // slot of the newest entry
+    private int size;
+    private boolean loaded;
+
+    public RecentBugs(int capacity) {
+        this.ring = new BugSummary[Math.max(1, capacity)];
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // Up to n entries, newest first; the loader fills the buffer on first use
+    public synchronized List<BugSummary> get(int n, IntFunction<List<BugSummary>> loader) {
+        if (!loaded) {
+            fill(loader.apply(ring.length));
+        }
+        List<BugSummary> recent = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < size && i < n; i++) {
+            recent.add(ring[slot(i)]);
+        }
+        return recent;
+    }
+
+    // A bug was created or updated: move it to the front
+    public synchronized void touch(BugSummary bug) {
+        if (!loaded) {
+            return;   // the first get() loads the current state anyway
+        }
+        removeEntry(bug.getId());
+        head = (head - 1 + ring.length) % ring.length;
+        ring[head] = bug;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    // A bug was deleted; the next-newest bug beyond the buffer is unknown, so reload on demand
+    public synchronized void remove(int id) {
+        if (removeEntry(id)) {
+            loaded = false;
+        }
+    }
+
+    // Forget everything (after bulk writes); the next get() reloads
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void fill(List<BugSummary> bugs) {
+        head = 0;
+        size = Math.min(bugs.size(), ring.length);
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = i < size ? bugs.get(i) : null;
+        }
+        loaded = true;
+    }
+
+    // Drop the entry with this id, closing the gap; false if it is not buffered
+    private boolean removeEntry(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ring[slot(i)].getId() == id) {
+                for (int j = i; j < size - 1; j++) {
+                    ring[slot(j)] = ring[slot(j + 1)];
+                }
+                ring[slot(size - 1)] = null;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ring slot of the i-th newest entry
+    private int slot(int i) {
+        return (head + i) % ring.length;
+    }
+}
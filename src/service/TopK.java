@@ -0,0 +1,69 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The k items with the highest counts out of a stream of (item, count) pairs.
+ * Keeps a min-heap of at most k entries: each new pair either loses to the
+ * smallest kept entry or replaces it, so memory is O(k) however many pairs
+ * are offered and each offer costs O(log k).
+ * Rankings that SQL can answer with GROUP BY ... ORDER BY ... LIMIT k are fed
+ * through it too, so every ranking comes back in the same shape.
+ */
+public class TopK<T> {
+
+    // One ranked item
+    public static class Ranked<T> {
+        public final T item;
+        public final long count;
+        private final long order;   // arrival order, breaks ties in favour of the earlier item
+
+        Ranked(T item, long count, long order) {
+            this.item = item;
+            this.count = count;
+            this.order = order;
+        }
+
+        @Override
+        public String toString() {
+            return item + "=" + count;
+        }
+    }
+
+    private final int k;
+    private final Comparator<Ranked<T>> weakestFirst;
+    private final PriorityQueue<Ranked<T>> heap;
+    private long offered;
+
+    public TopK(int k) {
+        this.k = Math.max(0, k);
+        // Weakest entry at the head: lowest count, latest arrival among equal counts
+        this.weakestFirst = (a, b) -> a.count != b.count
+            ? Long.compare(a.count, b.count)
+            : Long.compare(b.order, a.order);
+        this.heap = new PriorityQueue<>(Math.max(1, this.k), weakestFirst);
+    }
+
+    public void offer(T item, long count) {
+        long order = offered++;
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(new Ranked<>(item, count, order));
+        } else if (count > heap.peek().count) {
+            heap.poll();
+            heap.add(new Ranked<>(item, count, order));
+        }
+    }
+
+    // Kept entries, highest count first
+    public List<Ranked<T>> result() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(weakestFirst.reversed());
+        return ranked;
+    }
+}
@@ -2,6 +2,7 @@ package ui;
 
 import model.ActivityLog;
 import service.ActivityLogService;
+import service.ActivityQuery;
 import util.ColorScheme;
 import util.ModernButton;
 
@@ -10,7 +11,6 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
-import java.util.List;
 
 /**
  * Activity log panel to show all system activities
@@ -22,6 +22,13 @@ public class ActivityLogPanel extends JPanel {
     private JComboBox<String> actionFilter;
     private JLabel countLabel;
     
+    // Feed paging state for the current filter
+    private static final int PAGE_SIZE = 50;
+    private ActivityQuery currentQuery;
+    private ActivityLogService.ActivityPage lastPage;
+    private int loadedCount;
+    private boolean loadingPage;
+    
     public ActivityLogPanel() {
         this.activityLogService = new ActivityLogService();
         setLayout(new BorderLayout(0, 0));
@@ -152,6 +159,13 @@ public class ActivityLogPanel extends JPanel {
         
         // Scroll pane with styled border
         JScrollPane scrollPane = new JScrollPane(activityTable);
+        // Fetch the next page when the user scrolls near the bottom
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (!e.getValueIsAdjusting() && bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - 90) {
+                loadNextPage();
+            }
+        });
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(ColorScheme.BORDER, 1),
             BorderFactory.createEmptyBorder(0, 0, 0, 0)
@@ -163,41 +177,59 @@ public class ActivityLogPanel extends JPanel {
         return panel;
     }
     
+    // Start the feed over from the newest entry with the selected filter
     private void loadActivities() {
         tableModel.setRowCount(0);
+        loadedCount = 0;
+        lastPage = null;
         
-        String selectedFilter = (String) actionFilter.getSelectedItem();
-        String filter = convertFilterToAction(selectedFilter);
-        
-        List<ActivityLog> activities = activityLogService.getAllActivities();
+        String filter = convertFilterToAction((String) actionFilter.getSelectedItem());
+        currentQuery = new ActivityQuery();
+        if (!"ALL".equals(filter)) {
+            currentQuery.action(filter);
+        }
+        loadNextPage();
+    }
+    
+    private void loadNextPage() {
+        if (loadingPage || currentQuery == null || (lastPage != null && !lastPage.hasMore)) {
+            return;
+        }
+        // Adding rows fires scroll events; don't start another page while appending this one
+        loadingPage = true;
+        try {
+            appendPage();
+        } finally {
+            loadingPage = false;
+        }
+    }
+    
+    private void appendPage() {
+        if (lastPage != null) {
+            currentQuery.before(lastPage.nextTimestamp, lastPage.nextId);
+        }
+        lastPage = activityLogService.getActivityPage(currentQuery, PAGE_SIZE);
         
-        int displayCount = 0;
-        for (ActivityLog activity : activities) {
-            // Apply filter
-            if (!"ALL".equals(filter) && !activity.getAction().equals(filter)) {
-                continue;
-            }
-            
+        for (ActivityLog activity : lastPage.activities) {
             tableModel.addRow(new Object[]{
-                activity.getTimestamp(),
+                activity.getFormattedTimestamp(),
                 activity.getUsername(),
                 formatAction(activity.getAction()),
                 activity.getDetails(),
                 activity.getBugId() > 0 ? "#" + activity.getBugId() : "-"
             });
-            displayCount++;
         }
+        loadedCount += lastPage.activities.size();
         
         // Update count label
-        if (displayCount == activities.size()) {
-            countLabel.setText(String.format("Showing all %d activities", activities.size()));
+        if (loadedCount == 0) {
+            countLabel.setText("ALL".equals(convertFilterToAction((String) actionFilter.getSelectedItem()))
+                ? "No activities recorded yet. Start using the system to see activity logs!"
+                : "No matching activities");
+        } else if (lastPage.hasMore) {
+            countLabel.setText(String.format("Showing %d activities (scroll for more)", loadedCount));
         } else {
-            countLabel.setText(String.format("Showing %d of %d activities", displayCount, activities.size()));
-        }
-        
-        // Show message if no activities
-        if (activities.isEmpty()) {
-            countLabel.setText("No activities recorded yet. Start using the system to see activity logs!");
+            countLabel.setText(String.format("Showing all %d activities", loadedCount));
         }
     }
     
@@ -160,9 +160,20 @@ public class AddBugPanel extends JPanel {
             return;
         }
         
+        if (!bugService.isKnownAssignee(assignedTo)) {
+            JOptionPane.showMessageDialog(this, "No user named '" + assignedTo + "'. Enter a username or full name.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
         // Create bug
         Bug.Priority priority = (Bug.Priority) priorityComboBox.getSelectedItem();
         Bug bug = bugService.createBug(title, description, priority, assignedTo);
+        if (bug == null) {
+            JOptionPane.showMessageDialog(this, "Failed to create bug.", 
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         JOptionPane.showMessageDialog(this, 
             "Bug #" + bug.getId() + " created successfully!", 
@@ -1,6 +1,7 @@
 package ui;
 
 import model.Bug;
+import model.BugSummary;
 import model.User;
 import service.BugService;
 import service.AuthService;
@@ -18,7 +19,15 @@ public class BugListPanel extends JPanel {
     private JTable bugTable;
     private DefaultTableModel tableModel;
     private JTextField searchField;
-    private JComboBox<String> filterComboBox;
+    private JComboBox<String> statusFilterComboBox;
+    private JComboBox<String> priorityFilterComboBox;
+    private JButton loadMoreButton;
+    
+    // Paging state for the current filter
+    private static final int PAGE_SIZE = 100;
+    private Bug.Status pageStatus;
+    private Bug.Priority pagePriority;
+    private int nextAfterId;
     
     public BugListPanel(BugService bugService, JFrame parentFrame) {
         this.bugService = bugService;
@@ -60,22 +69,25 @@ public class BugListPanel extends JPanel {
         searchButton.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         searchButton.addActionListener(e -> performSearch());
         
-        // Filter combo box
+        // Filter combo boxes; status and priority combine
         JLabel filterLabel = new JLabel("Filter:");
         filterLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
-        String[] filterOptions = {"All Bugs", "New", "In Progress", "Resolved", "Closed", 
-                                  "Priority: Critical", "Priority: High", "Priority: Medium", "Priority: Low"};
-        filterComboBox = new JComboBox<>(filterOptions);
-        filterComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        filterComboBox.setPreferredSize(new Dimension(180, 30));
-        filterComboBox.addActionListener(e -> applyFilter());
+        statusFilterComboBox = new JComboBox<>(filterOptions("All Statuses", Bug.Status.values()));
+        statusFilterComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        statusFilterComboBox.setPreferredSize(new Dimension(140, 30));
+        statusFilterComboBox.addActionListener(e -> applyFilter());
+        priorityFilterComboBox = new JComboBox<>(filterOptions("All Priorities", Bug.Priority.values()));
+        priorityFilterComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        priorityFilterComboBox.setPreferredSize(new Dimension(140, 30));
+        priorityFilterComboBox.addActionListener(e -> applyFilter());
         
         // Reset button
         JButton resetButton = new JButton("Reset");
         resetButton.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         resetButton.addActionListener(e -> {
             searchField.setText("");
-            filterComboBox.setSelectedIndex(0);
+            statusFilterComboBox.setSelectedIndex(0);
+            priorityFilterComboBox.setSelectedIndex(0);
             refreshBugList();
         });
         
@@ -84,7 +96,8 @@ public class BugListPanel extends JPanel {
         panel.add(searchButton);
         panel.add(Box.createHorizontalStrut(20));
         panel.add(filterLabel);
-        panel.add(filterComboBox);
+        panel.add(statusFilterComboBox);
+        panel.add(priorityFilterComboBox);
         panel.add(resetButton);
         
         return panel;
@@ -138,6 +151,11 @@ public class BugListPanel extends JPanel {
         JButton refreshButton = new JButton("Refresh");
         refreshButton.addActionListener(e -> refreshBugList());
         
+        loadMoreButton = new JButton("Load More");
+        loadMoreButton.setEnabled(false);
+        loadMoreButton.addActionListener(e -> loadNextPage());
+        
+        panel.add(loadMoreButton);
         panel.add(viewButton);
         panel.add(editButton);
         panel.add(deleteButton);
@@ -147,13 +165,33 @@ public class BugListPanel extends JPanel {
     }
     
     public void refreshBugList() {
-        List<Bug> bugs = bugService.getAllBugs();
-        updateTable(bugs);
+        showFirstPage(null, null);
+    }
+    
+    // Start paging from the newest bug with the given filter (null = any)
+    private void showFirstPage(Bug.Status status, Bug.Priority priority) {
+        pageStatus = status;
+        pagePriority = priority;
+        nextAfterId = 0;
+        tableModel.setRowCount(0);
+        loadNextPage();
+    }
+    
+    private void loadNextPage() {
+        BugService.BugPage page = bugService.getBugPage(nextAfterId, PAGE_SIZE, pageStatus, pagePriority);
+        appendRows(page.bugs);
+        nextAfterId = page.nextAfterId;
+        loadMoreButton.setEnabled(page.hasMore);
     }
     
-    private void updateTable(List<Bug> bugs) {
+    private void updateTable(List<BugSummary> bugs) {
         tableModel.setRowCount(0);
-        for (Bug bug : bugs) {
+        loadMoreButton.setEnabled(false);
+        appendRows(bugs);
+    }
+    
+    private void appendRows(List<BugSummary> bugs) {
+        for (BugSummary bug : bugs) {
             Object[] row = {
                 bug.getId(),
                 bug.getTitle(),
@@ -171,45 +209,28 @@ public class BugListPanel extends JPanel {
         if (keyword.isEmpty()) {
             refreshBugList();
         } else {
-            List<Bug> searchResults = bugService.searchBugs(keyword);
+            List<BugSummary> searchResults = bugService.searchBugSummaries(keyword);
             updateTable(searchResults);
         }
     }
     
-    private void applyFilter() {
-        String selectedFilter = (String) filterComboBox.getSelectedItem();
-        List<Bug> filteredBugs;
-        
-        switch (selectedFilter) {
-            case "New":
-                filteredBugs = bugService.filterByStatus(Bug.Status.NEW);
-                break;
-            case "In Progress":
-                filteredBugs = bugService.filterByStatus(Bug.Status.IN_PROGRESS);
-                break;
-            case "Resolved":
-                filteredBugs = bugService.filterByStatus(Bug.Status.RESOLVED);
-                break;
-            case "Closed":
-                filteredBugs = bugService.filterByStatus(Bug.Status.CLOSED);
-                break;
-            case "Priority: Critical":
-                filteredBugs = bugService.filterByPriority(Bug.Priority.CRITICAL);
-                break;
-            case "Priority: High":
-                filteredBugs = bugService.filterByPriority(Bug.Priority.HIGH);
-                break;
-            case "Priority: Medium":
-                filteredBugs = bugService.filterByPriority(Bug.Priority.MEDIUM);
-                break;
-            case "Priority: Low":
-                filteredBugs = bugService.filterByPriority(Bug.Priority.LOW);
-                break;
-            default:
-                filteredBugs = bugService.getAllBugs();
+    // "Any" option followed by the display names of the enum constants
+    private static String[] filterOptions(String anyLabel, Enum<?>[] values) {
+        String[] options = new String[values.length + 1];
+        options[0] = anyLabel;
+        for (int i = 0; i < values.length; i++) {
+            options[i + 1] = values[i].toString();
         }
-        
-        updateTable(filteredBugs);
+        return options;
+    }
+    
+    private void applyFilter() {
+        // Index 0 is "any"; the rest follow enum order
+        int statusIndex = statusFilterComboBox.getSelectedIndex();
+        int priorityIndex = priorityFilterComboBox.getSelectedIndex();
+        Bug.Status status = statusIndex > 0 ? Bug.Status.values()[statusIndex - 1] : null;
+        Bug.Priority priority = priorityIndex > 0 ? Bug.Priority.values()[priorityIndex - 1] : null;
+        showFirstPage(status, priority);
     }
     
     private void viewBugDetails() {
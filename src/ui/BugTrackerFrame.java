@@ -3,7 +3,6 @@ package ui;
 import model.User;
 import service.BugService;
 import service.AuthService;
-import database.DatabaseManager;
 import javax.swing.*;
 import java.awt.*;
 
@@ -113,7 +112,6 @@ public class BugTrackerFrame extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             AuthService.logout();
-            DatabaseManager.closeConnection();
             dispose();
             
             // Show login frame
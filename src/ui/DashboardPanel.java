@@ -1,6 +1,7 @@
 package ui;
 
 import model.Bug;
+import model.BugSummary;
 import util.ColorScheme;
 import util.CardPanel;
 import service.BugService;
@@ -125,11 +126,12 @@ public class DashboardPanel extends JPanel {
         bugsList.setLayout(new BoxLayout(bugsList, BoxLayout.Y_AXIS));
         bugsList.setBackground(Color.WHITE);
         
-        List<Bug> recentBugs = bugService.getAllBugs();
-        int count = Math.min(5, recentBugs.size());
+        // Five most recently created or updated bugs, from the service's ring buffer
+        List<BugSummary> recentBugs = bugService.getRecentBugs(5);
+        int count = recentBugs.size();
         
         for (int i = 0; i < count; i++) {
-            Bug bug = recentBugs.get(i);
+            BugSummary bug = recentBugs.get(i);
             bugsList.add(createBugItem(bug));
             if (i < count - 1) {
                 bugsList.add(Box.createRigidArea(new Dimension(0, 10)));
@@ -144,7 +146,7 @@ public class DashboardPanel extends JPanel {
         return card;
     }
     
-    private JPanel createBugItem(Bug bug) {
+    private JPanel createBugItem(BugSummary bug) {
         JPanel panel = new JPanel(new BorderLayout(10, 5));
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createCompoundBorder(
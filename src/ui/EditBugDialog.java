@@ -161,6 +161,12 @@ public class EditBugDialog extends JDialog {
             return;
         }
         
+        if (!bugService.isKnownAssignee(assignedTo)) {
+            JOptionPane.showMessageDialog(this, "No user named '" + assignedTo + "'. Enter a username or full name.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
         // Update bug
         Bug.Priority priority = (Bug.Priority) priorityComboBox.getSelectedItem();
         Bug.Status status = (Bug.Status) statusComboBox.getSelectedItem();
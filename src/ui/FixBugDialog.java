@@ -1,14 +1,12 @@
 package ui;
 
-import database.BugDAO;
 import model.Bug;
 import model.Bug.Status;
 import model.User;
 import service.ActivityLogService;
+import service.BugService;
 import javax.swing.*;
 import java.awt.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Dialog for marking a bug as fixed/resolved
@@ -245,8 +243,8 @@ public class FixBugDialog extends JDialog {
             Status newBugStatus = closeImmediatelyCheckBox.isSelected() ? Status.CLOSED : Status.RESOLVED;
             bug.setStatus(newBugStatus);
             
-            // Update in database
-            boolean success = BugDAO.updateBug(bug);
+            // Update in database (through the service so the bug cache stays current)
+            boolean success = new BugService().saveBug(bug);
             
             if (success) {
                 // Create fix details message
@@ -316,22 +314,20 @@ public class FixBugDialog extends JDialog {
     }
     
     private void logTimeSpent(double hours, String description) {
-        try {
-            String sql = "INSERT INTO time_logs (bug_id, user_id, username, hours_spent, description, log_date) " +
-                        "VALUES (?, ?, ?, ?, ?, ?)";
-            
-            java.sql.Connection conn = database.DatabaseManager.getConnection();
-            java.sql.PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "INSERT INTO time_logs (bug_id, user_id, username, hours_spent, description, log_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+        
+        try (java.sql.Connection conn = database.DatabaseManager.getConnection();
+             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, bug.getId());
             pstmt.setInt(2, currentUser.getId());
             pstmt.setString(3, currentUser.getUsername());
             pstmt.setDouble(4, hours);
             pstmt.setString(5, description);
-            pstmt.setString(6, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+            pstmt.setLong(6, model.Timestamps.now());
             
             pstmt.executeUpdate();
-            pstmt.close();
             
         } catch (Exception e) {
             System.err.println("Error logging time: " + e.getMessage());
@@ -7,7 +7,6 @@ import util.ModernButton;
 import util.CardPanel;
 import service.BugService;
 import service.AuthService;
-import database.DatabaseManager;
 import javax.swing.*;
 import java.awt.*;
 
@@ -242,7 +241,6 @@ public class ModernBugTrackerFrame extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             AuthService.logout();
-            DatabaseManager.closeConnection();
             dispose();
             
             SwingUtilities.invokeLater(() -> {
@@ -4,7 +4,6 @@ import util.ColorScheme;
 import util.ModernButton;
 import model.User;
 import service.AuthService;
-import database.UserDAO;
 import javax.swing.*;
 import java.awt.*;
 
@@ -395,12 +394,13 @@ public class ModernRegisterDialog extends JDialog {
             return;
         }
         
-        if (UserDAO.usernameExists(username)) {
+        AuthService.Availability availability = AuthService.checkAvailability(username, email);
+        if (availability.usernameTaken) {
             showError("Username already exists. Please choose another.");
             return;
         }
         
-        if (UserDAO.emailExists(email)) {
+        if (availability.emailTaken) {
             showError("Email already registered. Please use another email.");
             return;
         }
@@ -2,7 +2,6 @@ package ui;
 
 import model.User;
 import service.AuthService;
-import database.UserDAO;
 import javax.swing.*;
 import java.awt.*;
 
@@ -192,8 +191,9 @@ public class RegisterDialog extends JDialog {
             return;
         }
         
-        // Check if username exists
-        if (UserDAO.usernameExists(username)) {
+        // Check username and email in one pass
+        AuthService.Availability availability = AuthService.checkAvailability(username, email);
+        if (availability.usernameTaken) {
             JOptionPane.showMessageDialog(this,
                 "Username already exists. Please choose another.",
                 "Registration Error",
@@ -202,7 +202,7 @@ public class RegisterDialog extends JDialog {
         }
         
         // Check if email exists
-        if (UserDAO.emailExists(email)) {
+        if (availability.emailTaken) {
             JOptionPane.showMessageDialog(this,
                 "Email already registered. Please use another email.",
                 "Registration Error",
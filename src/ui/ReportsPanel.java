@@ -1,26 +1,31 @@
 package ui;
 
-import model.Bug;
 import model.Bug.Priority;
 import model.Bug.Status;
+import service.ActivityLogService;
+import service.BugCsvExporter;
 import service.BugService;
+import service.TopK;
 import util.ColorScheme;
 import util.ModernButton;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.FileWriter;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Reports and analytics panel
  */
 public class ReportsPanel extends JPanel {
+    private static final int TOP_N = 5;
+    
     private BugService bugService;
+    private ActivityLogService activityLogService = new ActivityLogService();
     
     public ReportsPanel(BugService bugService) {
         this.bugService = bugService;
@@ -71,8 +76,9 @@ public class ReportsPanel extends JPanel {
         statsArea.setFont(new Font("Consolas", Font.PLAIN, 14));
         statsArea.setBackground(new Color(250, 250, 250));
         statsArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        statsArea.setText("Loading statistics...");
         
-        updateStatistics(statsArea);
+        loadStatistics(statsArea);
         
         JScrollPane scrollPane = new JScrollPane(statsArea);
         scrollPane.setBorder(BorderFactory.createLineBorder(ColorScheme.BORDER));
@@ -81,51 +87,63 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
     
-    private void updateStatistics(JTextArea statsArea) {
-        List<Bug> allBugs = bugService.getAllBugs();
-        
-        // Count by status
-        Map<Status, Long> byStatus = allBugs.stream()
-            .collect(Collectors.groupingBy(Bug::getStatus, Collectors.counting()));
-        
-        // Count by priority
-        Map<Priority, Long> byPriority = allBugs.stream()
-            .collect(Collectors.groupingBy(Bug::getPriority, Collectors.counting()));
-        
-        // Count by assignee
-        Map<String, Long> byAssignee = allBugs.stream()
-            .collect(Collectors.groupingBy(Bug::getAssignedTo, Collectors.counting()));
+    // The rankings may scan the activity journal, so the text is built on a worker thread
+    private void loadStatistics(JTextArea statsArea) {
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return buildStatistics();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    statsArea.setText(get());
+                    statsArea.setCaretPosition(0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    statsArea.setText("Error loading statistics: " + e.getCause().getMessage());
+                }
+            }
+        }.execute();
+    }
+    
+    // Statistics report text; does no Swing work, so it can run off the event thread
+    private String buildStatistics() {
+        // All counts come from the maintained counters, no bug scan
+        BugService.BugStats bugStats = bugService.getStatistics();
         
         StringBuilder stats = new StringBuilder();
         stats.append("═══════════════════════════════════════════════════════════════\n");
         stats.append("                     BUG TRACKER STATISTICS                     \n");
         stats.append("═══════════════════════════════════════════════════════════════\n\n");
         
-        stats.append("TOTAL BUGS: ").append(allBugs.size()).append("\n\n");
+        stats.append("TOTAL BUGS: ").append(bugStats.totalBugs).append("\n\n");
         
         stats.append("─── BY STATUS ───\n");
         for (Status status : Status.values()) {
-            long count = byStatus.getOrDefault(status, 0L);
-            stats.append(String.format("  %-15s : %d\n", status, count));
+            stats.append(String.format("  %-15s : %d\n", status, bugStats.count(status)));
         }
         
         stats.append("\n─── BY PRIORITY ───\n");
         for (Priority priority : Priority.values()) {
-            long count = byPriority.getOrDefault(priority, 0L);
-            stats.append(String.format("  %-15s : %d\n", priority, count));
+            stats.append(String.format("  %-15s : %d\n", priority, bugStats.count(priority)));
         }
         
         stats.append("\n─── TOP ASSIGNEES ───\n");
-        byAssignee.entrySet().stream()
-            .sorted((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()))
-            .limit(5)
-            .forEach(entry -> stats.append(String.format("  %-20s : %d bugs\n", 
-                entry.getKey(), entry.getValue())));
+        appendRanking(stats, bugService.getTopAssignees(TOP_N), "bugs");
+        
+        stats.append("\n─── TOP REPORTERS ───\n");
+        appendRanking(stats, bugService.getTopReporters(TOP_N), "bugs");
+        
+        stats.append("\n─── MOST ACTIVE USERS ───\n");
+        appendRanking(stats, activityLogService.getMostActiveUsers(TOP_N), "actions");
         
         stats.append("\n─── COMPLETION RATE ───\n");
-        long resolved = byStatus.getOrDefault(Status.RESOLVED, 0L);
-        long closed = byStatus.getOrDefault(Status.CLOSED, 0L);
-        long total = allBugs.size();
+        long resolved = bugStats.resolvedBugs;
+        long closed = bugStats.closedBugs;
+        long total = bugStats.totalBugs;
         if (total > 0) {
             double rate = ((resolved + closed) * 100.0) / total;
             stats.append(String.format("  Resolved/Closed: %.1f%%\n", rate));
@@ -138,7 +156,13 @@ public class ReportsPanel extends JPanel {
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
         stats.append("═══════════════════════════════════════════════════════════════\n");
         
-        statsArea.setText(stats.toString());
+        return stats.toString();
+    }
+    
+    private static void appendRanking(StringBuilder stats, List<TopK.Ranked<String>> ranking, String unit) {
+        for (TopK.Ranked<String> entry : ranking) {
+            stats.append(String.format("  %-20s : %d %s\n", entry.item, entry.count, unit));
+        }
     }
     
     private JPanel createExportPanel() {
@@ -157,9 +181,13 @@ public class ReportsPanel extends JPanel {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         buttonPanel.setBackground(Color.WHITE);
         
+        JCheckBox gzipCheckBox = new JCheckBox("Compress (gzip)");
+        gzipCheckBox.setBackground(Color.WHITE);
+        
         ModernButton exportCsvButton = new ModernButton("Export to CSV", ColorScheme.PRIMARY);
-        exportCsvButton.addActionListener(e -> exportToCSV());
+        exportCsvButton.addActionListener(e -> exportToCSV(exportCsvButton, gzipCheckBox.isSelected()));
         buttonPanel.add(exportCsvButton);
+        buttonPanel.add(gzipCheckBox);
         
         ModernButton exportTextButton = new ModernButton("Export Statistics", ColorScheme.SECONDARY);
         exportTextButton.addActionListener(e -> exportStatistics());
@@ -170,66 +198,92 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
     
-    private void exportToCSV() {
-        try {
-            String filename = "bug_report_" + LocalDateTime.now().format(
-                DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-            
-            FileWriter writer = new FileWriter(filename);
-            writer.write("ID,Title,Description,Priority,Status,Assigned To,Created By,Created Date,Updated Date\n");
-            
-            List<Bug> bugs = bugService.getAllBugs();
-            for (Bug bug : bugs) {
-                writer.write(String.format("%d,\"%s\",\"%s\",%s,%s,\"%s\",\"%s\",%s,%s\n",
-                    bug.getId(),
-                    bug.getTitle().replace("\"", "\"\""),
-                    bug.getDescription().replace("\"", "\"\""),
-                    bug.getPriority(),
-                    bug.getStatus(),
-                    bug.getAssignedTo().replace("\"", "\"\""),
-                    "N/A",  // Created by placeholder
-                    bug.getCreatedDate(),
-                    bug.getUpdatedDate()
-                ));
+    // Export runs on a SwingWorker; the exporter polls the progress monitor's Cancel between
+    // rows, and the button comes back only once the worker has actually stopped writing
+    private void exportToCSV(JButton exportButton, boolean gzip) {
+        String filename = "bug_report_" + LocalDateTime.now().format(
+            DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + (gzip ? ".csv.gz" : ".csv");
+        
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting bugs to " + filename, "Starting...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        exportButton.setEnabled(false);
+        
+        SwingWorker<BugCsvExporter.Result, Void> worker = new SwingWorker<>() {
+            @Override
+            protected BugCsvExporter.Result doInBackground() throws Exception {
+                return new BugCsvExporter(bugService).export(Paths.get(filename), gzip,
+                    (rows, total) -> setProgress(total > 0 ? (int) Math.min(100, rows * 100L / total) : 0),
+                    monitor::isCanceled);
             }
             
-            writer.close();
-            JOptionPane.showMessageDialog(this, 
-                "Report exported successfully!\n\nFile: " + filename,
-                "Export Complete", 
-                JOptionPane.INFORMATION_MESSAGE);
-                
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error exporting report: " + e.getMessage(),
-                "Export Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void done() {
+                monitor.close();
+                exportButton.setEnabled(true);
+                try {
+                    BugCsvExporter.Result result = get();
+                    if (result.cancelled) {
+                        JOptionPane.showMessageDialog(ReportsPanel.this, "Export cancelled.",
+                            "Export Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(ReportsPanel.this, 
+                        "Report exported successfully!\n\nFile: " + filename + "\nBugs: " + result.rows,
+                        "Export Complete", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(ReportsPanel.this, 
+                        "Error exporting report: " + e.getCause().getMessage(),
+                        "Export Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName()) && !monitor.isCanceled()) {
+                int percent = (Integer) event.getNewValue();
+                monitor.setProgress(percent);
+                monitor.setNote(percent + "% written");
+            }
+        });
+        worker.execute();
     }
     
+    // Builds and writes the report on a SwingWorker, like the CSV export
     private void exportStatistics() {
-        try {
-            String filename = "bug_statistics_" + LocalDateTime.now().format(
-                DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
-            
-            JTextArea tempArea = new JTextArea();
-            updateStatistics(tempArea);
-            
-            FileWriter writer = new FileWriter(filename);
-            writer.write(tempArea.getText());
-            writer.close();
+        String filename = "bug_statistics_" + LocalDateTime.now().format(
+            DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
+        
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                try (FileWriter writer = new FileWriter(filename)) {
+                    writer.write(buildStatistics());
+                }
+                return null;
+            }
             
-            JOptionPane.showMessageDialog(this, 
-                "Statistics exported successfully!\n\nFile: " + filename,
-                "Export Complete", 
-                JOptionPane.INFORMATION_MESSAGE);
-                
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error exporting statistics: " + e.getMessage(),
-                "Export Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(ReportsPanel.this, 
+                        "Statistics exported successfully!\n\nFile: " + filename,
+                        "Export Complete", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(ReportsPanel.this, 
+                        "Error exporting statistics: " + e.getCause().getMessage(),
+                        "Export Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
     
     public void refresh() {
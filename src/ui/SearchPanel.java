@@ -1,8 +1,11 @@
 package ui;
 
 import model.Bug;
+import model.BugSummary;
 import model.Bug.Priority;
 import model.Bug.Status;
+import model.Timestamps;
+import service.BugQuery;
 import service.BugService;
 import util.ColorScheme;
 import util.ModernButton;
@@ -11,7 +14,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Advanced search and filter panel
@@ -21,6 +24,8 @@ public class SearchPanel extends JPanel {
     private JTextField searchField;
     private JComboBox<String> statusFilter;
     private JComboBox<String> priorityFilter;
+    private JTextField assigneeField;
+    private JComboBox<String> createdFilter;
     private JTable resultsTable;
     private DefaultTableModel tableModel;
     
@@ -96,8 +101,30 @@ public class SearchPanel extends JPanel {
         priorityFilter.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         controlsPanel.add(priorityFilter, gbc);
         
-        // Search button
+        // Assignee filter
         gbc.gridx = 0; gbc.gridy = 2;
+        JLabel assigneeLabel = new JLabel("Assignee:");
+        assigneeLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        controlsPanel.add(assigneeLabel, gbc);
+        
+        gbc.gridx = 1;
+        assigneeField = new JTextField();
+        assigneeField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        controlsPanel.add(assigneeField, gbc);
+        
+        // Created date filter
+        gbc.gridx = 2;
+        JLabel createdLabel = new JLabel("Created:");
+        createdLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        controlsPanel.add(createdLabel, gbc);
+        
+        gbc.gridx = 3;
+        createdFilter = new JComboBox<>(new String[]{"ANY TIME", "LAST 7 DAYS", "LAST 30 DAYS", "LAST 90 DAYS"});
+        createdFilter.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        controlsPanel.add(createdFilter, gbc);
+        
+        // Search button
+        gbc.gridx = 0; gbc.gridy = 3;
         gbc.gridwidth = 4;
         gbc.fill = GridBagConstraints.NONE;
         gbc.anchor = GridBagConstraints.CENTER;
@@ -169,42 +196,29 @@ public class SearchPanel extends JPanel {
     }
     
     private void performSearch() {
-        String keyword = searchField.getText().trim().toLowerCase();
         String statusValue = (String) statusFilter.getSelectedItem();
         String priorityValue = (String) priorityFilter.getSelectedItem();
         
-        List<Bug> allBugs = bugService.getAllBugs();
+        // Combo values are enum constant names, so map them with valueOf
+        BugQuery query = new BugQuery()
+            .keyword(searchField.getText().trim())
+            .assignedTo(assigneeField.getText().trim());
+        if (!"ALL".equals(statusValue)) {
+            query.status(Status.valueOf(statusValue));
+        }
+        if (!"ALL".equals(priorityValue)) {
+            query.priority(Priority.valueOf(priorityValue));
+        }
+        int days = createdWithinDays();
+        if (days > 0) {
+            query.createdFrom(Timestamps.now() - TimeUnit.DAYS.toMillis(days));
+        }
         
-        // Apply filters
-        List<Bug> filteredBugs = allBugs.stream()
-            .filter(bug -> {
-                // Keyword filter
-                if (!keyword.isEmpty()) {
-                    return bug.getTitle().toLowerCase().contains(keyword) ||
-                           bug.getDescription().toLowerCase().contains(keyword) ||
-                           bug.getAssignedTo().toLowerCase().contains(keyword);
-                }
-                return true;
-            })
-            .filter(bug -> {
-                // Status filter
-                if (!"ALL".equals(statusValue)) {
-                    return bug.getStatus().toString().equals(statusValue);
-                }
-                return true;
-            })
-            .filter(bug -> {
-                // Priority filter
-                if (!"ALL".equals(priorityValue)) {
-                    return bug.getPriority().toString().equals(priorityValue);
-                }
-                return true;
-            })
-            .collect(Collectors.toList());
+        List<BugSummary> filteredBugs = bugService.findBugSummaries(query);
         
         // Update table
         tableModel.setRowCount(0);
-        for (Bug bug : filteredBugs) {
+        for (BugSummary bug : filteredBugs) {
             tableModel.addRow(new Object[]{
                 bug.getId(),
                 bug.getTitle(),
@@ -217,10 +231,21 @@ public class SearchPanel extends JPanel {
         }
     }
     
+    private int createdWithinDays() {
+        switch (createdFilter.getSelectedIndex()) {
+            case 1: return 7;
+            case 2: return 30;
+            case 3: return 90;
+            default: return 0;
+        }
+    }
+    
     private void clearFilters() {
         searchField.setText("");
         statusFilter.setSelectedIndex(0);
         priorityFilter.setSelectedIndex(0);
+        assigneeField.setText("");
+        createdFilter.setSelectedIndex(0);
         performSearch();
     }
     
@@ -1,5 +1,6 @@
 package ui;
 
+import model.Timestamps;
 import model.User;
 import service.AuthService;
 import database.UserDAO;
@@ -92,7 +93,7 @@ public class UserManagementPanel extends JPanel {
         
         String sql = "SELECT * FROM users ORDER BY id";
         
-        try (Connection conn = database.DatabaseManager.getConnection();
+        try (Connection conn = database.DatabaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -103,8 +104,9 @@ public class UserManagementPanel extends JPanel {
                     rs.getString("full_name"),
                     rs.getString("email"),
                     rs.getString("user_type"),
-                    rs.getString("created_date"),
-                    rs.getString("last_login_date") != null ? rs.getString("last_login_date") : "Never"
+                    Timestamps.format(rs.getLong("created_date"), Timestamps.DISPLAY),
+                    rs.getObject("last_login_date") != null
+                        ? Timestamps.format(rs.getLong("last_login_date"), Timestamps.DISPLAY) : "Never"
                 };
                 tableModel.addRow(row);
             }
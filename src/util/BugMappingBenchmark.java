@@ -0,0 +1,180 @@
+package util;
+
+import database.BugRowMapper;
+import model.Bug;
+import model.Bug.Priority;
+import model.Bug.Status;
+import model.Timestamps;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Micro-benchmark for Bug row hydration.
+ * Loads N bugs into an in-memory SQLite database, then times the old reflection
+ * based mapping over text dates against BugRowMapper over epoch-millis dates,
+ * using full-table scans.
+ *
+ * Usage: java -cp "bin;lib/*" util.BugMappingBenchmark [rows] [rounds]
+ */
+public class BugMappingBenchmark {
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.println("=".repeat(80));
+        System.out.println("Bug Mapping Benchmark - " + rows + " rows, " + rounds + " rounds");
+        System.out.println("=".repeat(80));
+
+        Class.forName("org.sqlite.JDBC");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            populate(conn, rows);
+
+            // Warm up both paths so the JIT has compiled them before measuring
+            for (int i = 0; i < 3; i++) {
+                scan(conn, false);
+                scan(conn, true);
+            }
+
+            long legacyNanos = 0;
+            long mapperNanos = 0;
+            for (int i = 0; i < rounds; i++) {
+                legacyNanos += scan(conn, false);
+                mapperNanos += scan(conn, true);
+            }
+
+            double legacyPerRow = (double) legacyNanos / rounds / rows;
+            double mapperPerRow = (double) mapperNanos / rounds / rows;
+
+            System.out.printf("Reflection mapping : %8.1f ns/row  (%6.1f ms/scan)%n",
+                legacyPerRow, legacyNanos / rounds / 1_000_000.0);
+            System.out.printf("BugRowMapper       : %8.1f ns/row  (%6.1f ms/scan)%n",
+                mapperPerRow, mapperNanos / rounds / 1_000_000.0);
+            System.out.printf("Speedup            : %8.2fx%n", legacyPerRow / mapperPerRow);
+        }
+    }
+
+    private static void populate(Connection conn, int rows) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Same rows twice: legacy text dates and assignee names, current epoch-millis dates and assignee ids
+            for (String table : new String[] { "bugs_legacy", "bugs" }) {
+                boolean current = table.equals("bugs");
+                String dateType = current ? "INTEGER" : "TEXT";
+                String assignee = current ? "assignee_id INTEGER" : "assigned_to TEXT NOT NULL";
+                stmt.execute("CREATE TABLE " + table + " ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, description TEXT NOT NULL, "
+                    + "priority TEXT NOT NULL, status TEXT NOT NULL, " + assignee + ", "
+                    + "created_by INTEGER NOT NULL, created_date " + dateType + " NOT NULL, "
+                    + "updated_date " + dateType + " NOT NULL)");
+            }
+        }
+
+        insertRows(conn, "bugs_legacy", rows, true);
+        insertRows(conn, "bugs", rows, false);
+    }
+
+    private static void insertRows(Connection conn, String table, int rows, boolean textDates) throws SQLException {
+        String assignee = textDates ? "assigned_to" : "assignee_id";
+        String sql = "INSERT INTO " + table + " (title, description, priority, status, " + assignee + ", created_by, created_date, updated_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Priority[] priorities = Priority.values();
+        Status[] statuses = Status.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0, 0);
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime date = base.plusMinutes(i);
+                pstmt.setString(1, "Benchmark bug " + i);
+                pstmt.setString(2, "Description for benchmark bug " + i);
+                pstmt.setString(3, priorities[i % priorities.length].name());
+                pstmt.setString(4, statuses[i % statuses.length].name());
+                if (textDates) {
+                    pstmt.setString(5, "user" + (i % 50));
+                } else {
+                    pstmt.setInt(5, 1 + i % 50);
+                }
+                pstmt.setInt(6, 1);
+                if (textDates) {
+                    pstmt.setString(7, date.format(formatter));
+                    pstmt.setString(8, date.format(formatter));
+                } else {
+                    pstmt.setLong(7, Timestamps.toEpochMillis(date));
+                    pstmt.setLong(8, Timestamps.toEpochMillis(date));
+                }
+                pstmt.addBatch();
+                if (i % 1000 == 999) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    // Full scan of the bugs table, returns elapsed nanoseconds
+    private static long scan(Connection conn, boolean useMapper) throws SQLException {
+        List<Bug> bugs = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + (useMapper ? "bugs" : "bugs_legacy") + " ORDER BY id DESC")) {
+            if (useMapper) {
+                BugRowMapper mapper = null;
+                while (rs.next()) {
+                    if (mapper == null) {
+                        mapper = new BugRowMapper(rs);
+                    }
+                    bugs.add(mapper.map(rs));
+                }
+            } else {
+                while (rs.next()) {
+                    bugs.add(legacyExtract(rs));
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        if (bugs.isEmpty()) {
+            throw new IllegalStateException("Scan returned no rows");
+        }
+        return elapsed;
+    }
+
+    // The previous BugDAO mapping: by-name lookups, formatter parsing and four reflective field writes per row
+    // (dates are converted to the epoch-millis fields Bug now holds)
+    private static Bug legacyExtract(ResultSet rs) throws SQLException {
+        Bug bug = new Bug(
+            rs.getString("title"),
+            rs.getString("description"),
+            Priority.valueOf(rs.getString("priority")),
+            rs.getString("assigned_to")
+        );
+
+        try {
+            java.lang.reflect.Field idField = Bug.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(bug, rs.getInt("id"));
+
+            java.lang.reflect.Field statusField = Bug.class.getDeclaredField("status");
+            statusField.setAccessible(true);
+            statusField.set(bug, Status.valueOf(rs.getString("status")));
+
+            java.lang.reflect.Field createdDateField = Bug.class.getDeclaredField("createdDate");
+            createdDateField.setAccessible(true);
+            createdDateField.set(bug, Timestamps.toEpochMillis(LocalDateTime.parse(rs.getString("created_date"), formatter)));
+
+            java.lang.reflect.Field updatedDateField = Bug.class.getDeclaredField("updatedDate");
+            updatedDateField.setAccessible(true);
+            updatedDateField.set(bug, Timestamps.toEpochMillis(LocalDateTime.parse(rs.getString("updated_date"), formatter)));
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Reflection mapping failed", e);
+        }
+
+        return bug;
+    }
+}
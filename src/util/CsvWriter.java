@@ -0,0 +1,166 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV output straight into a byte channel.
+ * Fields are escaped char by char into a char buffer, encoded to UTF-8 into a large
+ * byte buffer and written to the channel only when that fills, so a row costs no
+ * String.format, regex or intermediate String. Fields are quoted only when they
+ * contain a comma, quote or line break (RFC 4180).
+ */
+public class CsvWriter implements Closeable {
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private boolean rowStarted;
+    private long bytesWritten;
+
+    public CsvWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.chars = CharBuffer.allocate(Math.max(1024, bufferSize / 4));
+        this.bytes = ByteBuffer.allocate(Math.max(4096, bufferSize));
+    }
+
+    // Create (or truncate) the file, gzip-compressing when asked
+    public static CsvWriter open(Path file, boolean gzip, int bufferSize) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) {
+            return new CsvWriter(fileChannel, bufferSize);
+        }
+        try {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(Channels.newOutputStream(fileChannel), 64 * 1024);
+            return new CsvWriter(Channels.newChannel(gzipOut), bufferSize);
+        } catch (IOException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    // Text field; null is written as an empty field
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            put(value);
+            return this;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separator();
+        put(Long.toString(value));
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        put('\n');
+        rowStarted = false;
+    }
+
+    // Uncompressed bytes handed to the channel so far (excludes what is still buffered)
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // Push everything buffered to the channel
+    public void flush() throws IOException {
+        encode(false);
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            put(',');
+        }
+        rowStarted = true;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    private void put(String value) throws IOException {
+        int offset = 0;
+        while (offset < value.length()) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int n = Math.min(chars.remaining(), value.length() - offset);
+            chars.put(value, offset, offset + n);
+            offset += n;
+        }
+    }
+
+    // Move buffered chars into the byte buffer, writing the byte buffer out whenever it fills.
+    // A high surrogate at the very end stays in the char buffer until its pair arrives.
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+            drain();
+        }
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
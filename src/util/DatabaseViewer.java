@@ -55,7 +55,7 @@ public class DatabaseViewer {
         System.out.println("║                                    USERS TABLE                                   ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         
-        String sql = "SELECT id, username, email, full_name, user_type, created_date FROM users";
+        String sql = "SELECT id, username, email, full_name, user_type, " + localTime("created_date") + " FROM users";
         
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -91,7 +91,9 @@ public class DatabaseViewer {
         System.out.println("║                                    BUGS TABLE                                    ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         
-        String sql = "SELECT id, title, priority, status, assigned_to, created_by, created_date FROM bugs";
+        String sql = "SELECT b.id, b.title, b.priority, b.status, COALESCE(u.username, '-') AS assignee, b.created_by, "
+            + "datetime(b.created_date / 1000, 'unixepoch', 'localtime') AS created_date "
+            + "FROM bugs b LEFT JOIN users u ON u.id = b.assignee_id";
         
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -107,7 +109,7 @@ public class DatabaseViewer {
                     truncate(rs.getString("title"), 38),
                     rs.getString("priority"),
                     rs.getString("status"),
-                    truncate(rs.getString("assigned_to"), 13),
+                    truncate(rs.getString("assignee"), 13),
                     rs.getInt("created_by"),
                     rs.getString("created_date")
                 ));
@@ -177,7 +179,7 @@ public class DatabaseViewer {
         System.out.println("║                              ACTIVITY LOGS TABLE                                 ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         
-        String sql = "SELECT id, username, action, bug_id, timestamp FROM activity_logs ORDER BY timestamp DESC LIMIT 20";
+        String sql = "SELECT id, username, action, bug_id, " + localTime("timestamp") + " FROM activity_logs ORDER BY timestamp DESC LIMIT 20";
         
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -214,7 +216,7 @@ public class DatabaseViewer {
         System.out.println("║                                TIME LOGS TABLE                                   ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         
-        String sql = "SELECT id, bug_id, username, hours_spent, description, log_date FROM time_logs";
+        String sql = "SELECT id, bug_id, username, hours_spent, description, " + localTime("log_date") + " FROM time_logs";
         
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -255,7 +257,7 @@ public class DatabaseViewer {
         System.out.println("║                               ATTACHMENTS TABLE                                  ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         
-        String sql = "SELECT id, bug_id, file_name, file_size, uploaded_by, upload_date FROM attachments";
+        String sql = "SELECT id, bug_id, file_name, file_size, uploaded_by, " + localTime("upload_date") + " FROM attachments";
         
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -386,6 +388,11 @@ public class DatabaseViewer {
         }
     }
     
+    // Render an epoch-millis column as local date/time text, keeping the column name
+    private static String localTime(String column) {
+        return "datetime(" + column + " / 1000, 'unixepoch', 'localtime') AS " + column;
+    }
+    
     private static String truncate(String str, int maxLength) {
         if (str == null) return "";
         if (str.length() <= maxLength) return str;
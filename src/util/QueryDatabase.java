@@ -171,7 +171,7 @@ public class QueryDatabase {
         System.out.println();
         
         System.out.println("-- Get bugs assigned to john_doe");
-        System.out.println("SELECT * FROM bugs WHERE assigned_to = 'john_doe';");
+        System.out.println("SELECT * FROM bugs WHERE assignee_id = (SELECT id FROM users WHERE username = 'john_doe');");
         System.out.println();
         
         System.out.println("-- Recent activity logs");
@@ -184,7 +184,7 @@ public class QueryDatabase {
         
         System.out.println("-- Bugs with user details");
         System.out.println("SELECT b.id, b.title, b.status, u.full_name");
-        System.out.println("FROM bugs b JOIN users u ON b.assigned_to = u.username;");
+        System.out.println("FROM bugs b JOIN users u ON u.id = b.assignee_id;");
         System.out.println();
         
         System.out.println("-".repeat(80));
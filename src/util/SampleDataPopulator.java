@@ -7,6 +7,10 @@ import model.User;
 import model.Bug;
 import model.Bug.Priority;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class to populate the database with sample bugs for testing
@@ -227,34 +231,45 @@ public class SampleDataPopulator {
             }
         };
         
-        int created = 0;
+        // Group bugs by creator so each group goes in as one batched insert
+        Map<Integer, List<Object[]>> bugsByCreator = new LinkedHashMap<>();
         for (Object[] bugData : bugs) {
-            try {
+            bugsByCreator.computeIfAbsent((Integer) bugData[4], k -> new ArrayList<>()).add(bugData);
+        }
+        
+        int created = 0;
+        for (Map.Entry<Integer, List<Object[]>> group : bugsByCreator.entrySet()) {
+            List<Bug> batch = new ArrayList<>();
+            for (Object[] bugData : group.getValue()) {
                 Bug bug = new Bug(
                     (String) bugData[0],        // title
                     (String) bugData[1],        // description
                     (Priority) bugData[2],      // priority
                     (String) bugData[3]         // assignedTo
                 );
+                // Bugs reference their assignee by user id
+                bug.setAssignee(UserDAO.findUserIdByName(bug.getAssignedTo()), bug.getAssignedTo());
+                batch.add(bug);
+            }
+            
+            int[] ids = BugDAO.createBugs(batch, group.getKey());
+            if (ids == null) {
+                System.out.println("  ✗ Failed to create " + batch.size() + " bugs for user #" + group.getKey());
+                continue;
+            }
+            
+            for (int i = 0; i < batch.size(); i++) {
+                Bug bug = batch.get(i);
+                String priorityEmoji = switch (bug.getPriority()) {
+                    case CRITICAL -> "🔴";
+                    case HIGH -> "🟠";
+                    case MEDIUM -> "🟡";
+                    case LOW -> "🟢";
+                };
                 
-                Bug createdBug = BugDAO.createBug(bug, (int) bugData[4]);
-                
-                if (createdBug != null) {
-                    String priorityEmoji = switch (bug.getPriority()) {
-                        case CRITICAL -> "🔴";
-                        case HIGH -> "🟠";
-                        case MEDIUM -> "🟡";
-                        case LOW -> "🟢";
-                    };
-                    
-                    System.out.println("  ✓ " + priorityEmoji + " [" + bug.getPriority() + "] " + 
-                                     bugData[0] + " → Assigned to: " + bugData[3]);
-                    created++;
-                } else {
-                    System.out.println("  ✗ Failed to create bug: " + bugData[0]);
-                }
-            } catch (Exception e) {
-                System.err.println("  ✗ Error creating bug: " + e.getMessage());
+                System.out.println("  ✓ " + priorityEmoji + " #" + ids[i] + " [" + bug.getPriority() + "] " +
+                                 bug.getTitle() + " → Assigned to: " + bug.getAssignedTo());
+                created++;
             }
         }
         